@@ -5,6 +5,9 @@ import de.uzk.gui.Gui;
 import de.uzk.gui.UIEnvironment;
 import de.uzk.gui.dialogs.*;
 import de.uzk.image.Axis;
+import de.uzk.image.FramePrefetcher;
+import de.uzk.image.PinnedFrames;
+import de.uzk.image.Playback;
 import de.uzk.utils.ProjectUtils;
 
 import javax.swing.*;
@@ -27,9 +30,6 @@ import static de.uzk.config.LanguageHandler.getWord;
 // Zumal soll beim Pressed, mousewheellistener eventuell dann auch auslagern (in AreaImageViewer), damit es
 // eindeutiger ist...
 public class ActionHandler extends KeyAdapter implements MouseWheelListener {
-    // Es werden maximal 20 FPS / 13 FPS (bei gedrehten Bildern) erreicht
-    private static final long UPDATE_INTERVAL_MS = 50;
-    private static final long LONG_UPLOAD_INTERVAL_MS = 75;
     private static final URI WIKI_URL = URI.create("https://github.com/kaiserol/4D_Viewer/wiki");
     private final Gui gui;
     // Dialoge
@@ -38,8 +38,12 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
     private final DialogHistory dialogHistory;
     private final DialogLogViewer dialogLogViewer;
     private final DialogSettings dialogSettings;
-    // Zeitmessung, um Bildwechsel zu takten
-    private long lastUpdateTime = 0;
+    // Dekodiert beim Scrollen die nächsten Bilder im Voraus
+    private final FramePrefetcher framePrefetcher;
+    // Spielt die Bilder entlang der Zeitachse ab
+    private final Playback playback;
+    // Hält die Bilder der angehefteten Zeitpunkte dekodiert bereit
+    private final PinnedFrames pinnedFrames;
 
     public ActionHandler(Gui gui) {
         this.gui = gui;
@@ -48,6 +52,21 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
         dialogHistory = new DialogHistory(gui.getContainer());
         dialogLogViewer = new DialogLogViewer(gui.getContainer());
         dialogSettings = new DialogSettings(gui);
+        framePrefetcher = new FramePrefetcher(workspace.getFrameCache(), workspace.getFrameSource());
+        playback = new Playback(gui, workspace.getFrameCache(), workspace.getFrameSource(), framePrefetcher);
+        pinnedFrames = new PinnedFrames(workspace.getFrameCache(), workspace.getFrameSource());
+    }
+
+    public FramePrefetcher getFramePrefetcher() {
+        return framePrefetcher;
+    }
+
+    public PinnedFrames getPinnedFrames() {
+        return pinnedFrames;
+    }
+
+    public Playback getPlayback() {
+        return playback;
     }
 
     // ========================================
@@ -67,7 +86,7 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
         boolean shift = e.isShiftDown();
         int rotation = e.getWheelRotation();
         Axis axis = shift ? Axis.TIME : Axis.LEVEL;
-        scroll(axis, rotation, false);
+        scroll(axis, rotation);
     }
 
     // ========================================
@@ -80,6 +99,7 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
             case SHORTCUT_OPEN_FOLDER -> ProjectUtils.openProject(gui);
             case SHORTCUT_OPEN_RECENT -> ProjectUtils.openRecents(gui);
             case SHORTCUT_CLOSE_PROJECT -> ProjectUtils.closeProject(gui);
+            case SHORTCUT_BUILD_VOLUME -> ProjectUtils.buildVolume(gui);
             case SHORTCUT_SAVE_PROJECT -> {
                 workspace.saveConfigs();
                 gui.registerConfigSaved();
@@ -101,14 +121,15 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
 
             // Navigieren Shortcuts
             case SHORTCUT_GO_TO_FIRST_IMAGE -> scrollToBoundary(Axis.TIME, true);
-            case SHORTCUT_GO_TO_PREV_IMAGE -> scroll(Axis.TIME, -1, false);
-            case SHORTCUT_GO_TO_NEXT_IMAGE -> scroll(Axis.TIME, 1, false);
+            case SHORTCUT_GO_TO_PREV_IMAGE -> scroll(Axis.TIME, -1);
+            case SHORTCUT_GO_TO_NEXT_IMAGE -> scroll(Axis.TIME, 1);
             case SHORTCUT_GO_TO_LAST_IMAGE -> scrollToBoundary(Axis.TIME, false);
 
             case SHORTCUT_GO_TO_FIRST_LEVEL -> scrollToBoundary(Axis.LEVEL, true);
-            case SHORTCUT_GO_TO_PREV_LEVEL -> scroll(Axis.LEVEL, -1, false);
-            case SHORTCUT_GO_TO_NEXT_LEVEL -> scroll(Axis.LEVEL, 1, false);
+            case SHORTCUT_GO_TO_PREV_LEVEL -> scroll(Axis.LEVEL, -1);
+            case SHORTCUT_GO_TO_NEXT_LEVEL -> scroll(Axis.LEVEL, 1);
             case SHORTCUT_GO_TO_LAST_LEVEL -> scrollToBoundary(Axis.LEVEL, false);
+            case SHORTCUT_TOGGLE_PLAYBACK -> playback.toggle();
 
             // Fenster Shortcuts
             case SHORTCUT_FONT_SIZE_DECREASE -> UIEnvironment.updateFontSize(gui, settings.getFontSize() - 1);
@@ -137,10 +158,10 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
     // ========================================
     // Hilfsmethoden
     // ========================================
-    public void scroll(Axis axis, int rotation, boolean isAdjusting) {
-        // Gleiche Logik für Tastatur, Maus und ScrollBar
+    public void scroll(Axis axis, int rotation) {
+        // Gleiche Logik für Tastatur, Maus und ScrollBar. Jede Eingabe ändert sofort die Position; das Zeichnen
+        // wird vom ImageEditor zusammengefasst, sodass keine Eingaben verloren gehen.
         if (axis == null || rotation == 0) return;
-        if (!isAdjusting && preventNextUpdate()) return;
 
         int abs = Math.abs(rotation);
         if (abs > 1) {
@@ -160,21 +181,12 @@ public class ActionHandler extends KeyAdapter implements MouseWheelListener {
             else workspace.next(axis);
         }
         gui.update(axis);
+        framePrefetcher.onScroll(axis, rotation);
     }
 
     private void scrollToBoundary(Axis axis, boolean toFirst) {
-        if (preventNextUpdate()) return;
-
         if (toFirst) workspace.toFirst(axis);
         else workspace.toLast(axis);
         gui.update(axis);
     }
-
-    private boolean preventNextUpdate() {
-        long now = System.currentTimeMillis();
-        long interval = (workspace.getConfig().getRotation() != 0) ? LONG_UPLOAD_INTERVAL_MS : UPDATE_INTERVAL_MS;
-        if (now - lastUpdateTime < interval) return true;
-        lastUpdateTime = now;
-        return false;
-    }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ public enum ActionType {
     SHORTCUT_OPEN_RECENT(new Shortcut(KeyEvent.VK_O, Shortcut.CTRL_DOWN | Shortcut.SHIFT_DOWN)),
     SHORTCUT_SAVE_PROJECT(new Shortcut(KeyEvent.VK_S, Shortcut.CTRL_DOWN)),
     SHORTCUT_CLOSE_PROJECT(new Shortcut(KeyEvent.VK_W, Shortcut.CTRL_DOWN)),
+    SHORTCUT_BUILD_VOLUME,
 
     // Bearbeiten Shortcuts
     SHORTCUT_PIN_TIME(new Shortcut(KeyEvent.VK_P, Shortcut.CTRL_DOWN)),
@@ -41,6 +42,7 @@ public enum ActionType {
     SHORTCUT_GO_TO_PREV_LEVEL(KeyEventType.PRESSED, new Shortcut(KeyEvent.VK_UP)),
     SHORTCUT_GO_TO_NEXT_LEVEL(KeyEventType.PRESSED, new Shortcut(KeyEvent.VK_DOWN)),
     SHORTCUT_GO_TO_LAST_LEVEL(KeyEventType.PRESSED, new Shortcut(KeyEvent.VK_DOWN, Shortcut.SHIFT_DOWN)),
+    SHORTCUT_TOGGLE_PLAYBACK(new Shortcut(KeyEvent.VK_SPACE, Shortcut.ALT_DOWN | Shortcut.SHIFT_DOWN)),
 
     // Fenster Shortcuts
     SHORTCUT_FONT_SIZE_DECREASE(new Shortcut(KeyEvent.VK_MINUS, Shortcut.CTRL_DOWN), new Shortcut(KeyEvent.VK_SUBTRACT, Shortcut.CTRL_DOWN)),
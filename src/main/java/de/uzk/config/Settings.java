@@ -13,12 +13,18 @@ public class Settings {
     // MinMax-Konstanten
     public static final int MIN_FONT_SIZE = 8;
     public static final int MAX_FONT_SIZE = 30;
+    public static final int MIN_FRAME_CACHE_SIZE = 16;
+    public static final int MAX_FRAME_CACHE_SIZE = 65_536;
+    public static final int MIN_REFINE_DELAY = 50;
+    public static final int MAX_REFINE_DELAY = 2_000;
     // Default-Konstanten
     private static final Language DEFAULT_LANGUAGE = Language.getSystemDefault();
     private static final Theme DEFAULT_THEME = Theme.getDefault();
     private static final InitialDirectory DEFAULT_INITIAL_DIRECTORY = InitialDirectory.ROOT;
     private static final boolean DEFAULT_CONFIRM_EXIT = true;
     private static final Path DEFAULT_SCREENSHOT_DIRECTORY = PathManager.DEFAULT_SNAPSHOTS_DIRECTORY;
+    private static final int DEFAULT_FRAME_CACHE_SIZE = 512;
+    private static final int DEFAULT_REFINE_DELAY = 150;
     // Einstellungen
     private Language language;
     private InitialDirectory initialDirectory;
@@ -26,6 +32,10 @@ public class Settings {
     private int fontSize;
     private boolean confirmExit;
     private Path screenshotDirectory;
+    // Speicherbudget des Bilder-Caches (in MB)
+    private int frameCacheSize;
+    // Zeit ohne Eingaben (in ms), nach der das Bild in voller Qualität neu gezeichnet wird
+    private int refineDelay;
 
     @JsonCreator
     public Settings(
@@ -34,7 +44,9 @@ public class Settings {
         @JsonProperty("fontSize") int fontSize,
         @JsonProperty("confirmExit") boolean confirmExit,
         @JsonProperty("initialDirectory") InitialDirectory initialDirectory,
-        @JsonProperty("screenshotDirectory") Path screenshotDirectory
+        @JsonProperty("screenshotDirectory") Path screenshotDirectory,
+        @JsonProperty("frameCacheSize") int frameCacheSize,
+        @JsonProperty("refineDelay") int refineDelay
     ) {
         setLanguage(language);
         setTheme(theme);
@@ -42,6 +54,8 @@ public class Settings {
         setConfirmExit(confirmExit);
         setInitialDirectory(initialDirectory);
         setScreenshotDirectory(screenshotDirectory);
+        setFrameCacheSize(frameCacheSize);
+        setRefineDelay(refineDelay);
     }
 
     public static Settings load() {
@@ -59,7 +73,9 @@ public class Settings {
             DEFAULT_FONT_SIZE,
             DEFAULT_CONFIRM_EXIT,
             DEFAULT_INITIAL_DIRECTORY,
-            DEFAULT_SCREENSHOT_DIRECTORY
+            DEFAULT_SCREENSHOT_DIRECTORY,
+            DEFAULT_FRAME_CACHE_SIZE,
+            DEFAULT_REFINE_DELAY
         );
     }
 
@@ -152,6 +168,38 @@ public class Settings {
         return true;
     }
 
+    public int getFrameCacheSize() {
+        return frameCacheSize;
+    }
+
+    public boolean setFrameCacheSize(int frameCacheSize) {
+        if (NumberUtils.valueInRange(frameCacheSize, MIN_FRAME_CACHE_SIZE, MAX_FRAME_CACHE_SIZE)) {
+            if (this.frameCacheSize == frameCacheSize) return false;
+            this.frameCacheSize = frameCacheSize;
+        } else {
+            // Setzt den Defaultwert, wenn der Wert nicht innerhalb der MinMax-Grenzen liegt
+            if (NumberUtils.valueInRange(this.frameCacheSize, MIN_FRAME_CACHE_SIZE, MAX_FRAME_CACHE_SIZE)) return false;
+            this.frameCacheSize = DEFAULT_FRAME_CACHE_SIZE;
+        }
+        return true;
+    }
+
+    public int getRefineDelay() {
+        return refineDelay;
+    }
+
+    public boolean setRefineDelay(int refineDelay) {
+        if (NumberUtils.valueInRange(refineDelay, MIN_REFINE_DELAY, MAX_REFINE_DELAY)) {
+            if (this.refineDelay == refineDelay) return false;
+            this.refineDelay = refineDelay;
+        } else {
+            // Setzt den Defaultwert, wenn der Wert nicht innerhalb der MinMax-Grenzen liegt
+            if (NumberUtils.valueInRange(this.refineDelay, MIN_REFINE_DELAY, MAX_REFINE_DELAY)) return false;
+            this.refineDelay = DEFAULT_REFINE_DELAY;
+        }
+        return true;
+    }
+
     public void save() {
         Path filePath = PathManager.resolveConfigPath(PathManager.SETTINGS_FILE_NAME);
         PathManager.save(filePath, this);
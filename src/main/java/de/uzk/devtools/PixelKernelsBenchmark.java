@@ -0,0 +1,69 @@
+package de.uzk.devtools;
+
+import de.uzk.image.kernels.PixelKernels;
+import de.uzk.image.kernels.ScalarPixelKernels;
+
+import java.util.Random;
+
+import static de.uzk.Main.logger;
+
+/**
+ * Der {@code PixelKernelsBenchmark} misst die Laufzeit der {@link PixelKernels} auf einem Bild in 4K-Auflösung
+ * und vergleicht die skalare mit der schnellsten verfügbaren Implementierung.
+ *
+ * <p>Die vektorisierte Implementierung wird nur verwendet, wenn die JVM mit
+ * {@code --add-modules jdk.incubator.vector} gestartet wurde (z.B. über {@code mvn compile exec:exec@benchmark});
+ * andernfalls werden zweimal die skalaren Kernel gemessen.
+ *
+ * <br><br>
+ * Die Klasse ist als {@code final} deklariert, um eine Vererbung zu verhindern.
+ * Da sämtliche Funktionalitäten über statische Methoden bereitgestellt werden,
+ * besitzt die Klasse einen privaten Konstruktor, um eine Instanziierung zu
+ * unterbinden.
+ */
+public final class PixelKernelsBenchmark {
+    private static final int WIDTH = 3840;
+    private static final int HEIGHT = 2160;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    /**
+     * Privater Konstruktor, um eine Instanziierung dieser Klasse zu unterbinden.
+     */
+    private PixelKernelsBenchmark() {
+        // Verhindert die Instanziierung dieser Klasse
+    }
+
+    public static void main(String[] args) {
+        int length = WIDTH * HEIGHT;
+        Random random = new Random(42);
+        int[] first = random.ints(length).toArray();
+        int[] second = random.ints(length).toArray();
+        int[] destination = new int[length];
+        byte[] gray = new byte[length];
+        int[] table = new int[256];
+        for (int i = 0; i < table.length; i++) table[i] = Math.min(255, i * 3 / 2);
+
+        PixelKernels scalar = new ScalarPixelKernels();
+        PixelKernels kernels = PixelKernels.getDefault();
+        logger.info("Benchmarking %d x %d pixels: '%s' vs. '%s'".formatted(WIDTH, HEIGHT, scalar.getName(), kernels.getName()));
+
+        for (PixelKernels candidate : new PixelKernels[]{scalar, kernels}) {
+            String name = candidate.getName();
+            measure(name, "applyTables", () -> candidate.applyTables(first, 0, destination, 0, length, table, table, table, false));
+            measure(name, "toGray", () -> candidate.toGray(first, 0, gray, 0, length));
+            measure(name, "fromGray", () -> candidate.fromGray(gray, 0, destination, 0, length));
+            measure(name, "maxProjection", () -> candidate.maxProjection(destination, second, 0, length));
+            measure(name, "absDifference", () -> candidate.absDifference(first, second, destination, 0, length));
+        }
+    }
+
+    private static void measure(String implementation, String kernel, Runnable runnable) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) runnable.run();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) runnable.run();
+        double millis = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+        logger.info("%-20s %-15s %8.2f ms".formatted(implementation, kernel, millis));
+    }
+}
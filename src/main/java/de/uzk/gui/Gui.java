@@ -108,6 +108,9 @@ public class Gui extends ObserverContainer<JFrame> {
     public void rebuild() {
         logger.info("Rebuilding UI ...");
 
+        // Angeheftete Bilder freigeben; sie werden nach dem Neuaufbau wieder bestimmt
+        actionHandler.getPinnedFrames().release();
+
         // Observer Listener zurücksetzen (alte Ereignis-Listener müssen bereinigt werden)
         handleActionListeners.clear();
         toggleListeners.clear();
@@ -137,6 +140,11 @@ public class Gui extends ObserverContainer<JFrame> {
         container.setTitle(getWord("app.name"));
         container.setLayout(new BorderLayout());
 
+        // Angeheftete Bilder bereithalten und ausstehende Vorausladungen beim Schließen oder Wechseln des Projekts
+        // abbrechen (die Beobachter werden bei jedem Neuaufbau entfernt)
+        actionHandler.getPinnedFrames().registerListeners(this);
+        registerToggleListener(actionHandler.getFramePrefetcher());
+
         // Panel erstellen
         JPanel mainPanel = new JPanel(UIEnvironment.getDefaultBorderLayout());
         mainPanel.setBorder(UIEnvironment.BORDER_EMPTY_DEFAULT);
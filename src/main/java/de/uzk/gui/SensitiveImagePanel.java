@@ -1,5 +1,6 @@
 package de.uzk.gui;
 
+import de.uzk.image.ImageLayers;
 import de.uzk.markers.interactions.MarkerInteractionHandler;
 import de.uzk.utils.GraphicsUtils;
 
@@ -8,18 +9,21 @@ import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 
 
 /**
  * Ein JPanel, das ein Bild anzeigt und Events verfolgt, welche <i>innerhalb des Bildbereichs</i> auftreten.
+ * Das Bild besteht aus mehreren Ebenen ({@link ImageLayers}), die erst beim Zeichnen übereinandergelegt werden.
  *
  * @see MarkerInteractionHandler
  * @see de.uzk.image.ImageEditor
  */
 public class SensitiveImagePanel extends JPanel implements MouseListener, MouseMotionListener {
-    private BufferedImage currentImage;
+    private ImageLayers currentLayers;
     private double scale; // Um welchen Faktor wurde das Bild skaliert, um auf das JPanel zu passen?
     private Dimension insets;
     private Dimension displaySize;
@@ -32,9 +36,23 @@ public class SensitiveImagePanel extends JPanel implements MouseListener, MouseM
     }
 
 
-    public void updateImage(BufferedImage image) {
-        currentImage = image;
-        repaint();
+    public void updateImage(ImageLayers layers) {
+        boolean sameSize = layers != null && currentLayers != null
+            && layers.getWidth() == currentLayers.getWidth() && layers.getHeight() == currentLayers.getHeight();
+        currentLayers = layers;
+
+        Rectangle dirtyRegion = layers == null ? null : layers.getDirtyRegion();
+        if (!sameSize || dirtyRegion == null || insets == null) {
+            repaint();
+            return;
+        }
+
+        // Nur den geänderten Bereich (in Gerätepixeln, nach außen gerundet) neu zeichnen
+        int x = (int) Math.floor(dirtyRegion.x * scale) + insets.width - 1;
+        int y = (int) Math.floor(dirtyRegion.y * scale) + insets.height - 1;
+        int width = (int) Math.ceil(dirtyRegion.width * scale) + 3;
+        int height = (int) Math.ceil(dirtyRegion.height * scale) + 3;
+        repaint(x, y, width, height);
     }
 
     public void clear() {
@@ -45,27 +63,54 @@ public class SensitiveImagePanel extends JPanel implements MouseListener, MouseM
     public void paint(Graphics g) {
         super.paint(g);
         Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(g);
-        if (currentImage != null) {
-            scale = GraphicsUtils.getImageScaleFactor(currentImage, getSize());
-
-            int adjustedImageWidth = (int) (currentImage.getWidth() * scale);
-            int adjustedImageHeight = (int) (currentImage.getHeight() * scale);
+        if (currentLayers != null) {
+            // Die Ebenen werden bereits passend zum Bildbereich in Gerätepixeln gezeichnet (siehe ImageEditor) und
+            // daher nicht erneut skaliert. Nur bis sie an eine geänderte Größe angepasst wurden, wird verkleinert.
+            double deviceScale = g2d.getTransform().getScaleX();
+            scale = Math.min(1 / deviceScale, GraphicsUtils.getImageScaleFactor(currentLayers.getBase(), getSize()));
+            // Weicht die Einpassung (z.B. durch Rundung bei 125 % oder 150 %) um weniger als einen Gerätepixel ab,
+            // gelten die Ebenen als passend und werden pixelgenau gezeichnet
+            int maxLayerSize = Math.max(currentLayers.getWidth(), currentLayers.getHeight());
+            boolean nativeResolution = Math.abs(scale * deviceScale - 1) * maxLayerSize < 1;
+            if (nativeResolution) scale = 1 / deviceScale;
+
+            int adjustedImageWidth = (int) (currentLayers.getWidth() * scale);
+            int adjustedImageHeight = (int) (currentLayers.getHeight() * scale);
             displaySize = new Dimension(adjustedImageWidth, adjustedImageHeight);
             insets = new Dimension((getWidth() - adjustedImageWidth) / 2, (getHeight() - adjustedImageHeight) / 2);
+            currentLayers.getQuality().applyTo(g2d);
 
-            g2d.drawImage(currentImage, insets.width, insets.height    , displaySize.width, displaySize.height, null);
+            drawLayer(g2d, currentLayers.getBase(), nativeResolution);
+            drawLayer(g2d, currentLayers.getMarkers(), nativeResolution);
+            drawLayer(g2d, currentLayers.getDragPoints(), nativeResolution);
         } else {
             g2d.setColor(UIEnvironment.getBackgroundColor());
             g2d.fillRect(0, 0, getWidth(), getHeight());
         }
     }
 
+    private void drawLayer(Graphics2D g2d, BufferedImage layer, boolean nativeResolution) {
+        if (layer == null) return;
+        if (!nativeResolution) {
+            g2d.drawImage(layer, insets.width, insets.height, displaySize.width, displaySize.height, null);
+            return;
+        }
+
+        // Pixelgenau in Gerätekoordinaten kopieren, ohne erneute Interpolation
+        Graphics2D deviceGraphics = (Graphics2D) g2d.create();
+        Point2D origin = g2d.getTransform().transform(new Point2D.Double(insets.width, insets.height), null);
+        deviceGraphics.setTransform(AffineTransform.getTranslateInstance(Math.round(origin.getX()), Math.round(origin.getY())));
+        deviceGraphics.drawImage(layer, 0, 0, null);
+        deviceGraphics.dispose();
+    }
+
     /**
      * Überprüfe, ob `original` innerhalb des Bildbereiches stattgefunden hat. Falls ja, berechne die Koordinaten des Mauszeigers
      * innerhalb des Bilds, und gib das Ergebnis zurück
      *
      * @param original Das `MouseEvent`, das überprüft werden soll.
-     * @return Ein zu original identisches Event mit modifizierten Koordinaten, oder null, wenn das Event außerhalb des Bildbereiches liegt
+     * @return Ein zu original identisches Event mit Koordinaten in Pixeln der Ebenen (d.h. der Zeichenfläche des
+     * {@link de.uzk.image.ImageEditor}s, in Gerätepixeln), oder null, wenn das Event außerhalb des Bildbereiches liegt
      */
     private MouseEvent shouldTriggerEvent(MouseEvent original) {
         if(insets == null) return null;
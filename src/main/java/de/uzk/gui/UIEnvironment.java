@@ -5,6 +5,7 @@ import com.formdev.flatlaf.themes.FlatMacDarkLaf;
 import com.formdev.flatlaf.themes.FlatMacLightLaf;
 import de.uzk.action.ActionType;
 import de.uzk.config.*;
+import de.uzk.image.FrameCache;
 import de.uzk.io.ImageLoader;
 import de.uzk.utils.ComponentUtils;
 
@@ -230,6 +231,24 @@ public final class UIEnvironment {
         logger.info("Updating Screenshot Directory from '%s' to '%s'".formatted(oldScreenshotDirectory, screenshotDirectory));
     }
 
+    public static void updateFrameCacheSize(int frameCacheSize) {
+        int oldFrameCacheSize = settings.getFrameCacheSize();
+        if (!settings.setFrameCacheSize(frameCacheSize)) return;
+        logger.info("Updating Frame Cache Size from '%s MB' to '%s MB'".formatted(oldFrameCacheSize, frameCacheSize));
+        FrameCache frameCache = workspace.getFrameCache();
+        frameCache.setMaxBytes((long) frameCacheSize << 20);
+        if (frameCache.getMaxBytes() >> 20 < frameCacheSize) {
+            logger.info("Limiting the Frame Cache Size to '%s MB' (maximum heap: '%s MB')".formatted(
+                frameCache.getMaxBytes() >> 20, Runtime.getRuntime().maxMemory() >> 20));
+        }
+    }
+
+    public static void updateRefineDelay(int refineDelay) {
+        int oldRefineDelay = settings.getRefineDelay();
+        if (!settings.setRefineDelay(refineDelay)) return;
+        logger.info("Updating Refine Delay from '%s ms' to '%s ms'".formatted(oldRefineDelay, refineDelay));
+    }
+
     // ========================================
     // Hilfsmethoden
     // ========================================
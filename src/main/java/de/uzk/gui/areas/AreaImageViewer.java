@@ -8,6 +8,7 @@ import de.uzk.gui.observer.ObserverContainer;
 import de.uzk.image.Axis;
 import de.uzk.image.ImageDragger;
 import de.uzk.image.ImageEditor;
+import de.uzk.image.RenderQuality;
 import de.uzk.io.SnapshotHelper;
 import de.uzk.markers.interactions.MarkerInteractionHandler;
 import de.uzk.utils.ColorUtils;
@@ -15,6 +16,8 @@ import de.uzk.utils.ComponentUtils;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.MouseAdapter;
@@ -51,8 +54,8 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
         // 2. Bildbereich mit Scrollbars hinzufügen
         panelView = new JPanel(new BorderLayout());
         imagePanel = new SensitiveImagePanel();
-        scrollBarTime = ComponentUtils.createScrollBar(Adjustable.HORIZONTAL, newValue -> handleScrollAction(newValue, Axis.TIME, scrollBarTime));
-        scrollBarLevel = ComponentUtils.createScrollBar(Adjustable.VERTICAL, newValue -> handleScrollAction(newValue, Axis.LEVEL, scrollBarLevel));
+        scrollBarTime = ComponentUtils.createScrollBar(Adjustable.HORIZONTAL, newValue -> handleScrollAction(newValue, Axis.TIME));
+        scrollBarLevel = ComponentUtils.createScrollBar(Adjustable.VERTICAL, newValue -> handleScrollAction(newValue, Axis.LEVEL));
 
         int scrollBarWidth = UIManager.getInt("ScrollBar.width");
         panelView.add(imagePanel, BorderLayout.CENTER);
@@ -64,6 +67,7 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
 
         imageEditor = new ImageEditor();
         imageEditor.onNewImageAvailable(imagePanel::updateImage);
+        imagePanel.addComponentListener(new ViewportResizeListener());
 
         markerInteractionHandler = new MarkerInteractionHandler(imageEditor, gui);
         imagePanel.addMouseListener(markerInteractionHandler);
@@ -105,7 +109,7 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
                 imageEditor.clear();
                 imagePanel.clear();
             }
-            case ACTION_EDIT_IMAGE -> imageEditor.updateImage(true);
+            case ACTION_EDIT_IMAGE -> imageEditor.applyEdits();
 
 
             case ACTION_ADD_MARKER, ACTION_EDIT_MARKER, ACTION_REMOVE_MARKER, ACTION_UPDATE_FONT -> {
@@ -117,7 +121,7 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
                 }
             }
             case SHORTCUT_TAKE_SNAPSHOT -> {
-                if (SnapshotHelper.saveSnapshot(imageEditor.getCurrentImage())) {
+                if (SnapshotHelper.saveSnapshot(imageEditor.createSnapshot())) {
                     gui.handleAction(ActionType.ACTION_UPDATE_SNAPSHOT_COUNTER);
                 }
             }
@@ -149,6 +153,8 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
 
     @Override
     public void update(Axis axis) {
+        // Beim Scrollen zunächst schnell zeichnen; verfeinert wird, sobald nicht mehr gescrollt wird
+        imageEditor.beginInteraction(RenderQuality.FAST);
         imageEditor.updateImage(true);
         switch (axis) {
             case TIME -> ComponentUtils.setValueSecurely(scrollBarTime, workspace.getTime());
@@ -162,14 +168,14 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
     }
 
     //region Aktualisierungen
-    private void handleScrollAction(int newValue, Axis axis, JScrollBar scrollBar) {
+    private void handleScrollAction(int newValue, Axis axis) {
         // Wenn sich der Wert nicht ändert, abbrechen
         int oldValue = (axis == Axis.TIME) ? workspace.getTime() : workspace.getLevel();
         if (oldValue == newValue) return;
 
         // Richtung berechnen: > 0: vorwärts, < 0: rückwärts
         int rotation = newValue - oldValue;
-        gui.getActionHandler().scroll(axis, rotation, scrollBar.getValueIsAdjusting());
+        gui.getActionHandler().scroll(axis, rotation);
     }
 
     private void updateScrollBarValuesSecurely(JScrollBar scrollBar, int value, int max) {
@@ -203,6 +209,19 @@ public class AreaImageViewer extends ObserverContainer<JPanel> {
 
     //endregion
 
+    private class ViewportResizeListener extends ComponentAdapter {
+        // Listener für Größenänderungen des Bildbereichs (in Gerätepixeln, z.B. bei HiDPI-Bildschirmen)
+        @Override
+        public void componentResized(ComponentEvent e) {
+            GraphicsConfiguration graphicsConfig = imagePanel.getGraphicsConfiguration();
+            double deviceScale = graphicsConfig == null ? 1 : graphicsConfig.getDefaultTransform().getScaleX();
+            imageEditor.setViewportSize(new Dimension(
+                (int) Math.ceil(imagePanel.getWidth() * deviceScale),
+                (int) Math.ceil(imagePanel.getHeight() * deviceScale)
+            ));
+        }
+    }
+
     private class FocusMouseListener extends MouseAdapter {
         // Listener für Fokusaktivierung
         @Override
@@ -0,0 +1,121 @@
+package de.uzk.gui.dialogs;
+
+import de.uzk.gui.UIEnvironment;
+import de.uzk.image.ImageFile;
+import de.uzk.io.VolumeStore;
+import de.uzk.utils.ComponentUtils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static de.uzk.Main.logger;
+import static de.uzk.config.LanguageHandler.getWord;
+
+public class DialogBuildVolume {
+    // Dialoge
+    private final JDialog dialog;
+    // Gui Elemente
+    private JProgressBar progressBar;
+    // Thread
+    private Thread thread;
+    private boolean successful;
+    private boolean failed;
+
+    public DialogBuildVolume(Window parentWindow) {
+        dialog = ComponentUtils.createDialog(parentWindow, this::closeThread);
+    }
+
+    /**
+     * Erzeugt die Volumendatei und zeigt dabei den Fortschritt an. Der Nutzer kann den Vorgang jederzeit abbrechen.
+     *
+     * @return <code>true</code>, wenn die Volumendatei vollständig erzeugt wurde; bei einem Fehler wird zusätzlich
+     * eine Fehlermeldung angezeigt
+     */
+    public boolean build(Path file, List<ImageFile> imageFiles, int times, int levels) {
+        dialog.setTitle(getWord("dialog.buildVolume"));
+        dialog.getContentPane().removeAll();
+        dialog.setLayout(new BorderLayout());
+
+        // Inhalt hinzufügen
+        JPanel contentPanel = new JPanel(new BorderLayout(20, 20));
+        contentPanel.setBorder(UIEnvironment.BORDER_EMPTY_DEFAULT);
+        contentPanel.add(createProgressBar(imageFiles.size()), BorderLayout.CENTER);
+        dialog.add(contentPanel, BorderLayout.CENTER);
+
+        // Thread starten
+        thread = null;
+        successful = false;
+        failed = false;
+        startThread(file, imageFiles, times, levels);
+
+        // Dialog anzeigen
+        dialog.pack();
+        dialog.setResizable(false);
+        dialog.setLocationRelativeTo(dialog.getOwner());
+        dialog.setVisible(true);
+
+        if (failed) {
+            JOptionPane.showMessageDialog(
+                dialog.getOwner(),
+                getWord("dialog.buildVolume.failed"),
+                getWord("optionPane.title.error"),
+                JOptionPane.ERROR_MESSAGE
+            );
+        }
+        return successful;
+    }
+
+    // ========================================
+    // Komponenten-Erzeugung
+    // ========================================
+    private JProgressBar createProgressBar(int imagesCount) {
+        progressBar = new JProgressBar(0, imagesCount);
+        progressBar.setStringPainted(true);
+        progressBar.setString("0 / " + imagesCount);
+        progressBar.setPreferredSize(new Dimension(300, 20));
+        return progressBar;
+    }
+
+    // ========================================
+    // Thread Methoden
+    // ========================================
+    private void startThread(Path file, List<ImageFile> imageFiles, int times, int levels) {
+        if (thread != null) return;
+        thread = new Thread(() -> {
+            logger.info("Building the volume-file '%s' ...".formatted(file.toAbsolutePath()));
+            try {
+                VolumeStore.build(file, imageFiles, times, levels, number -> SwingUtilities.invokeLater(() -> {
+                    progressBar.setValue(number);
+                    progressBar.setString(number + " / " + imageFiles.size());
+                }));
+                successful = true;
+            } catch (InterruptedException e) {
+                logger.info("Building the volume-file was cancelled.");
+            } catch (IOException e) {
+                // Ein Abbrechen während eines Dateizugriffs kann sich auch als IOException äußern
+                if (Thread.currentThread().isInterrupted()) {
+                    logger.info("Building the volume-file was cancelled.");
+                } else {
+                    logger.warn("Could not build the volume-file '%s': %s".formatted(file.toAbsolutePath(), e));
+                    failed = true;
+                }
+            }
+            SwingUtilities.invokeLater(dialog::dispose);
+        }, "VolumeBuilder");
+        thread.start();
+    }
+
+    private void closeThread() {
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                logger.error("Failed to join the thread. (Process: Building volume ...)");
+            }
+        }
+    }
+}
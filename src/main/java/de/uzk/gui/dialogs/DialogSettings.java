@@ -30,6 +30,8 @@ public class DialogSettings {
     private JComboBox<InitialDirectory> selectInitialDirectory;
     private ScreenshotDirectorySelector selectScreenshotDirectory;
     private JSpinner fontSizeSpinner;
+    private JSpinner frameCacheSizeSpinner;
+    private JSpinner refineDelaySpinner;
     private JCheckBox checkConfirmExit;
     private JButton okButton;
 
@@ -39,6 +41,8 @@ public class DialogSettings {
     private InitialDirectory oldInitialDirectory;
     private Path oldScreenshotPath;
     private int oldFontSize;
+    private int oldFrameCacheSize;
+    private int oldRefineDelay;
     private boolean oldConfirmExit;
 
     public DialogSettings(Gui gui) {
@@ -69,6 +73,8 @@ public class DialogSettings {
         oldConfirmExit = settings.isConfirmExit();
         oldInitialDirectory = settings.getInitialDirectory();
         oldScreenshotPath = settings.getScreenshotDirectory();
+        oldFrameCacheSize = settings.getFrameCacheSize();
+        oldRefineDelay = settings.getRefineDelay();
 
         // Inhalte hinzufügen
         JPanel contentPanel = new JPanel(UIEnvironment.getDefaultBorderLayout());
@@ -131,11 +137,24 @@ public class DialogSettings {
         ComponentUtils.addLabeledRow(settingsPanel, gbc, getWord("dialog.settings.screenshotDirectory"), selectScreenshotDirectory, 10);
 
 
+        // 3. Abschnitt: Leistung hinzufügen
+        ComponentUtils.addRow(settingsPanel, gbc, createBoldLabel(getWord("dialog.settings.section.performance")), 20);
+
+        // Drehfeld (Bilder-Cache) hinzufügen
+        frameCacheSizeSpinner = ComponentUtils.createSpinner(Settings.MIN_FRAME_CACHE_SIZE, Settings.MAX_FRAME_CACHE_SIZE, false, null);
+        frameCacheSizeSpinner.setValue(oldFrameCacheSize);
+        ComponentUtils.addLabeledRow(settingsPanel, gbc, getWord("dialog.settings.frameCacheSize"), frameCacheSizeSpinner, 10);
+
+        // Drehfeld (Verzögerung der Verfeinerung) hinzufügen
+        refineDelaySpinner = ComponentUtils.createSpinner(Settings.MIN_REFINE_DELAY, Settings.MAX_REFINE_DELAY, false, null);
+        refineDelaySpinner.setValue(oldRefineDelay);
+        ComponentUtils.addLabeledRow(settingsPanel, gbc, getWord("dialog.settings.refineDelay"), refineDelaySpinner, 10);
+
         gbc.gridwidth = 2;
         gbc.weightx = 1;
         gbc.insets.right = 100;
 
-        // 3. Abschnitt: Fenster-Verhalten hinzufügen
+        // 4. Abschnitt: Fenster-Verhalten hinzufügen
         ComponentUtils.addRow(settingsPanel, gbc, createBoldLabel(getWord("dialog.settings.section.windowBehavior")), 20);
 
         gbc.weightx = 0;
@@ -188,6 +207,8 @@ public class DialogSettings {
                 || !Objects.equals(selectInitialDirectory.getSelectedItem(), oldInitialDirectory)
                 || !Objects.equals(selectScreenshotDirectory.getScreenshotDirectory(), oldScreenshotPath)
                 || (int) fontSizeSpinner.getValue() != oldFontSize
+                || (int) frameCacheSizeSpinner.getValue() != oldFrameCacheSize
+                || (int) refineDelaySpinner.getValue() != oldRefineDelay
                 || checkConfirmExit.isSelected() != oldConfirmExit;
             okButton.setEnabled(changed);
         };
@@ -198,8 +219,10 @@ public class DialogSettings {
         selectInitialDirectory.addActionListener(e -> checkChanges.run());
         selectScreenshotDirectory.addChangeListener(p -> checkChanges.run());
 
-        // Listener für JSpinner (FontSize) hinzufügen
+        // Listener für JSpinner (FontSize, FrameCacheSize & RefineDelay) hinzufügen
         fontSizeSpinner.addChangeListener(e -> checkChanges.run());
+        frameCacheSizeSpinner.addChangeListener(e -> checkChanges.run());
+        refineDelaySpinner.addChangeListener(e -> checkChanges.run());
 
         // Listener für JCheckBox (ConfirmExit) hinzufügen
         checkConfirmExit.addActionListener(e -> checkChanges.run());
@@ -213,5 +236,7 @@ public class DialogSettings {
         UIEnvironment.updateFontSize(gui, (int) fontSizeSpinner.getValue());
         UIEnvironment.updateConfirmExit(checkConfirmExit.isSelected());
         UIEnvironment.updateScreenshotDirectory(selectScreenshotDirectory.getScreenshotDirectory());
+        UIEnvironment.updateFrameCacheSize((int) frameCacheSizeSpinner.getValue());
+        UIEnvironment.updateRefineDelay((int) refineDelaySpinner.getValue());
     }
 }
\ No newline at end of file
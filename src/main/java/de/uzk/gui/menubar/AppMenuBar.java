@@ -44,6 +44,9 @@ public class AppMenuBar extends ObserverContainer<JMenuBar> {
         menuProjects.add(new CustomMenuItem(getWord("menu.project.save"), null, actionHandler, SHORTCUT_SAVE_PROJECT));
         menuProjects.addSeparator();
 
+        menuProjects.add(new CustomMenuItem(getWord("menu.project.buildVolume"), null, actionHandler, SHORTCUT_BUILD_VOLUME));
+        menuProjects.addSeparator();
+
         menuProjects.add(new CustomMenuItem(getWord("menu.project.close"), null, actionHandler, SHORTCUT_CLOSE_PROJECT));
 
         return menuProjects;
@@ -77,6 +80,9 @@ public class AppMenuBar extends ObserverContainer<JMenuBar> {
         menuNavigate.add(new CustomMenuItem(getWord("menu.nav.level.prev"), ICON_ARROW_UP, actionHandler, SHORTCUT_GO_TO_PREV_LEVEL));
         menuNavigate.add(new CustomMenuItem(getWord("menu.nav.level.next"), ICON_ARROW_DOWN, actionHandler, SHORTCUT_GO_TO_NEXT_LEVEL));
         menuNavigate.add(new CustomMenuItem(getWord("menu.nav.level.last"), ICON_ARROW_DOWN_END, actionHandler, SHORTCUT_GO_TO_LAST_LEVEL));
+        menuNavigate.addSeparator();
+
+        menuNavigate.add(new CustomMenuItem(getWord("menu.nav.playback"), actionHandler, SHORTCUT_TOGGLE_PLAYBACK));
         return menuNavigate;
     }
 
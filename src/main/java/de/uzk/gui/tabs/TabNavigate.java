@@ -7,6 +7,8 @@ import de.uzk.edit.TimeUnitEdit;
 import de.uzk.gui.Gui;
 import de.uzk.gui.observer.ObserverContainer;
 import de.uzk.image.Axis;
+import de.uzk.image.Playback;
+import de.uzk.image.PlaybackMode;
 import de.uzk.utils.ComponentUtils;
 
 import javax.swing.*;
@@ -20,6 +22,13 @@ public class TabNavigate extends ObserverContainer<JPanel> {
     // Gui Elemente
     private JSpinner timeUnitSpinner;
     private JSpinner levelUnitSpinner;
+    private JToggleButton playButton;
+    private JComboBox<String> axisComboBox;
+    private JComboBox<PlaybackMode> modeComboBox;
+    private JSpinner fpsSpinner;
+    private JCheckBox realTimeCheckBox;
+    private JCheckBox pinnedTimesCheckBox;
+    private JLabel playbackStatusLabel;
 
     public TabNavigate(Gui gui) {
         super(new JPanel(), gui);
@@ -83,7 +92,87 @@ public class TabNavigate extends ObserverContainer<JPanel> {
         JLabel levelUnitLabel = new JLabel(getWord("menu.nav.level.unit"));
         editorPanel.add(levelUnitLabel, gbc);
 
-        container.add(editorPanel, BorderLayout.NORTH);
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(editorPanel, BorderLayout.NORTH);
+        northPanel.add(createPlaybackPanel(), BorderLayout.SOUTH);
+        container.add(northPanel, BorderLayout.NORTH);
+    }
+
+    private JPanel createPlaybackPanel() {
+        Playback playback = gui.getActionHandler().getPlayback();
+        JPanel playbackPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = ComponentUtils.createGridBagConstraints();
+
+        // playButton
+        playButton = new JToggleButton(getWord("menu.nav.playback"));
+        playButton.addActionListener(e -> {
+            gui.getActionHandler().executeAction(ActionType.SHORTCUT_TOGGLE_PLAYBACK);
+            // Lässt sich die Wiedergabe nicht starten (z.B. nur ein Zeitpunkt), wird der Knopf zurückgesetzt
+            updatePlaybackStatus();
+        });
+        ComponentUtils.addRow(playbackPanel, gbc, playButton, 10);
+
+        // axisComboBox: Zeit oder Ebenen (in der Reihenfolge von Axis)
+        String[] axes = {getWord("menu.nav.time.layer"), getWord("menu.nav.level.layer")};
+        axisComboBox = ComponentUtils.createComboBox(axes, axis -> {
+            playback.setAxis(Axis.values()[axisComboBox.getSelectedIndex()]);
+            updatePlaybackControls();
+        });
+        ComponentUtils.addLabeledRow(playbackPanel, gbc, getWord("menu.nav.playback.axis"), axisComboBox, 5);
+
+        // modeComboBox
+        modeComboBox = ComponentUtils.createComboBox(PlaybackMode.values(), playback::setMode);
+        modeComboBox.setSelectedItem(playback.getMode());
+        ComponentUtils.addLabeledRow(playbackPanel, gbc, getWord("menu.nav.playback.mode"), modeComboBox, 5);
+
+        // fpsSpinner
+        fpsSpinner = ComponentUtils.createSpinner(Playback.MIN_FPS, Playback.MAX_FPS, false, playback::setFramesPerSecond);
+        ComponentUtils.setValueSecurely(fpsSpinner, playback.getFramesPerSecond());
+        ComponentUtils.addLabeledRow(playbackPanel, gbc, getWord("menu.nav.playback.fps"), fpsSpinner, 5);
+
+        // realTimeCheckBox
+        realTimeCheckBox = ComponentUtils.createCheckBox(getWord("menu.nav.playback.realTime"), realTime -> {
+            playback.setRealTime(realTime);
+            updatePlaybackControls();
+        });
+        realTimeCheckBox.setSelected(playback.isRealTime());
+        ComponentUtils.addRow(playbackPanel, gbc, realTimeCheckBox, 5);
+
+        // pinnedTimesCheckBox
+        pinnedTimesCheckBox = ComponentUtils.createCheckBox(getWord("menu.nav.playback.pinnedTimes"), pinnedTimesOnly -> {
+            playback.setPinnedTimesOnly(pinnedTimesOnly);
+            updatePlaybackControls();
+        });
+        pinnedTimesCheckBox.setSelected(playback.isPinnedTimesOnly());
+        ComponentUtils.addRow(playbackPanel, gbc, pinnedTimesCheckBox, 5);
+
+        // playbackStatusLabel
+        playbackStatusLabel = new JLabel();
+        ComponentUtils.addRow(playbackPanel, gbc, playbackStatusLabel, 5);
+
+        // Die Wiedergabe übersteht einen Neuaufbau der Gui; die Bedienelemente zeigen daher ihren Zustand.
+        // Die Achse wird erst hier gesetzt, da ihr Beobachter bereits alle Bedienelemente benötigt.
+        axisComboBox.setSelectedIndex(playback.getAxis().ordinal());
+        updatePlaybackControls();
+        playback.onStatusChanged(this::updatePlaybackStatus);
+        updatePlaybackStatus();
+        return playbackPanel;
+    }
+
+    private void updatePlaybackControls() {
+        // Echtzeit und angeheftete Zeitpunkte gibt es nur entlang der Zeitachse
+        boolean timeAxis = gui.getActionHandler().getPlayback().getAxis() == Axis.TIME;
+        boolean realTime = timeAxis && !pinnedTimesCheckBox.isSelected();
+        realTimeCheckBox.setEnabled(realTime);
+        pinnedTimesCheckBox.setEnabled(timeAxis);
+        fpsSpinner.setEnabled(!realTime || !realTimeCheckBox.isSelected());
+    }
+
+    private void updatePlaybackStatus() {
+        Playback playback = gui.getActionHandler().getPlayback();
+        playButton.setSelected(playback.isPlaying());
+        playbackStatusLabel.setText(playback.isPlaying() ?
+            getWord("menu.nav.playback.status").formatted(playback.getAchievedFps(), playback.getDroppedFrames()) : " ");
     }
 
 
@@ -115,12 +204,14 @@ public class TabNavigate extends ObserverContainer<JPanel> {
     @Override
     public void toggleOn() {
         ComponentUtils.setEnabled(container, true);
+        updatePlaybackControls();
         timeUnitSpinner.setValue(workspace.getConfig().getTimeUnit());
         levelUnitSpinner.setValue(workspace.getConfig().getLevelUnit());
     }
 
     @Override
     public void toggleOff() {
+        gui.getActionHandler().getPlayback().stop();
         ComponentUtils.setEnabled(container, false);
         timeUnitSpinner.setValue(workspace.getConfig().getTimeUnit());
         levelUnitSpinner.setValue(workspace.getConfig().getLevelUnit());
@@ -0,0 +1,109 @@
+package de.uzk.image;
+
+import java.awt.*;
+import java.util.Objects;
+
+/**
+ * Beschreibt, mit welcher Auflösung ein Bild benötigt wird, damit es im Bildbereich ohne sichtbaren
+ * Qualitätsverlust dargestellt werden kann.
+ * <p>
+ * Ist der Bildbereich kleiner als das Bild (unter Berücksichtigung des Zooms), genügt es, nur jedes n-te Pixel
+ * in jeder Richtung zu dekodieren (Unterabtastung). Das verkürzt die Dekodierzeit und verringert den
+ * Speicherbedarf deutlich.
+ * <p>
+ * Ist stark hineingezoomt, ist zudem nur ein Ausschnitt des Bildes sichtbar. In diesem Fall wird nur dieser
+ * Ausschnitt (zuzüglich eines Randes, damit kleine Verschiebungen kein erneutes Dekodieren auslösen) gelesen.
+ *
+ * @see de.uzk.io.ImageLoader#openFrame
+ */
+public final class DecodeTarget {
+    /**
+     * Ziel, bei dem das Bild immer in voller Auflösung dekodiert wird (z.B. für Momentaufnahmen).
+     */
+    public static final DecodeTarget FULL_RESOLUTION = new DecodeTarget(new Dimension(0, 0), 1);
+    // Rand, um den der sichtbare Ausschnitt beim Dekodieren je Seite erweitert wird (relativ zu seiner Größe)
+    private static final double REGION_MARGIN = 0.25;
+
+    // Größe des Bildbereichs in Gerätepixeln
+    private final Dimension viewportSize;
+    // Zoomfaktor (1.0 = 100 %)
+    private final double zoom;
+    // Sichtbarer Ausschnitt in Pixeln der Originaldatei oder null, wenn das gesamte Bild benötigt wird
+    private final Rectangle visibleRegion;
+
+    public DecodeTarget(Dimension viewportSize, double zoom) {
+        this(viewportSize, zoom, null);
+    }
+
+    public DecodeTarget(Dimension viewportSize, double zoom, Rectangle visibleRegion) {
+        if (viewportSize == null) throw new NullPointerException("Viewport size is null.");
+        if (zoom <= 0) throw new IllegalArgumentException("Zoom must be greater than 0.");
+        this.viewportSize = new Dimension(viewportSize);
+        this.zoom = zoom;
+        this.visibleRegion = visibleRegion == null ? null : new Rectangle(visibleRegion);
+    }
+
+    /**
+     * @return der sichtbare Ausschnitt in Pixeln der Originaldatei oder <code>null</code>, wenn das gesamte Bild
+     * benötigt wird
+     */
+    public Rectangle getVisibleRegion() {
+        return visibleRegion == null ? null : new Rectangle(visibleRegion);
+    }
+
+    /**
+     * Berechnet den Ausschnitt, der tatsächlich dekodiert werden soll: den sichtbaren Ausschnitt zuzüglich eines
+     * Randes, beschränkt auf die Bildgrenzen.
+     *
+     * @param sourceWidth  Breite des Bildes in der Datei
+     * @param sourceHeight Höhe des Bildes in der Datei
+     * @return der zu dekodierende Ausschnitt in Pixeln der Originaldatei
+     */
+    public Rectangle getDecodeRegion(int sourceWidth, int sourceHeight) {
+        Rectangle bounds = new Rectangle(0, 0, sourceWidth, sourceHeight);
+        if (visibleRegion == null) return bounds;
+
+        Rectangle region = new Rectangle(visibleRegion);
+        region.grow((int) Math.ceil(region.width * REGION_MARGIN), (int) Math.ceil(region.height * REGION_MARGIN));
+        region = region.intersection(bounds);
+        return region.isEmpty() ? bounds : region;
+    }
+
+    /**
+     * Berechnet die größtmögliche Unterabtastung, bei der ein Bildpixel noch mindestens einem Gerätepixel
+     * entspricht. Ist die Größe des Bildbereichs (noch) unbekannt, wird in voller Auflösung dekodiert.
+     *
+     * @param sourceWidth  Breite des Bildes in der Datei
+     * @param sourceHeight Höhe des Bildes in der Datei
+     * @return Unterabtastung (<code>1</code> = volle Auflösung)
+     */
+    public int getSubsampling(int sourceWidth, int sourceHeight) {
+        if (viewportSize.width <= 0 || viewportSize.height <= 0) return 1;
+
+        // Das Bild wird in den Bildbereich eingepasst und anschließend gezoomt
+        double sourcePixelsPerDevicePixel = Math.max(
+            (double) sourceWidth / viewportSize.width,
+            (double) sourceHeight / viewportSize.height
+        ) / zoom;
+        return Math.max(1, (int) Math.floor(sourcePixelsPerDevicePixel));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DecodeTarget that = (DecodeTarget) o;
+        return Double.compare(zoom, that.zoom) == 0 && viewportSize.equals(that.viewportSize) &&
+            Objects.equals(visibleRegion, that.visibleRegion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(viewportSize, zoom, visibleRegion);
+    }
+
+    @Override
+    public String toString() {
+        return "DecodeTarget[viewport=%dx%d, zoom=%.2f, region=%s]".formatted(viewportSize.width, viewportSize.height, zoom, visibleRegion);
+    }
+}
@@ -0,0 +1,90 @@
+package de.uzk.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Ein dekodiertes Bild samt der Information, in welcher Auflösung es aus der Datei gelesen wurde.
+ * <p>
+ * Alle Koordinaten außerhalb dieser Klasse (Marker, Verschiebung, Zoom) beziehen sich auf die Pixel der
+ * Originaldatei. Wurde das Bild mit einer Unterabtastung <code>n</code> dekodiert, entspricht ein Pixel von
+ * {@link #getImage()} <code>n × n</code> Pixeln der Originaldatei.
+ * <p>
+ * Wurde nur ein Ausschnitt der Datei dekodiert, beginnt {@link #getImage()} an der linken oberen Ecke von
+ * {@link #getRegion()}.
+ */
+public final class DecodedFrame {
+    private final BufferedImage image;
+    private final int sourceWidth;
+    private final int sourceHeight;
+    private final int subsampling;
+    private final Rectangle region;
+
+    public DecodedFrame(BufferedImage image, int sourceWidth, int sourceHeight, int subsampling) {
+        this(image, sourceWidth, sourceHeight, subsampling, new Rectangle(0, 0, sourceWidth, sourceHeight));
+    }
+
+    public DecodedFrame(BufferedImage image, int sourceWidth, int sourceHeight, int subsampling, Rectangle region) {
+        if (image == null) throw new NullPointerException("Image is null.");
+        if (region == null) throw new NullPointerException("Region is null.");
+        if (subsampling < 1) throw new IllegalArgumentException("Subsampling must be at least 1.");
+        this.image = image;
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+        this.subsampling = subsampling;
+        this.region = new Rectangle(region);
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public int getSourceWidth() {
+        return sourceWidth;
+    }
+
+    public int getSourceHeight() {
+        return sourceHeight;
+    }
+
+    public Dimension getSourceSize() {
+        return new Dimension(sourceWidth, sourceHeight);
+    }
+
+    public int getSubsampling() {
+        return subsampling;
+    }
+
+    /**
+     * @return der dekodierte Ausschnitt in Pixeln der Originaldatei
+     */
+    public Rectangle getRegion() {
+        return new Rectangle(region);
+    }
+
+    public boolean isComplete() {
+        return region.x == 0 && region.y == 0 && region.width == sourceWidth && region.height == sourceHeight;
+    }
+
+    /**
+     * @param target die benötigte Auflösung
+     * @return <code>true</code>, wenn dieses Bild mindestens so fein aufgelöst ist, wie es das Ziel erfordert,
+     * und den gesamten sichtbaren Ausschnitt enthält
+     */
+    public boolean isSufficientFor(DecodeTarget target) {
+        if (subsampling > target.getSubsampling(sourceWidth, sourceHeight)) return false;
+
+        Rectangle visibleRegion = target.getVisibleRegion();
+        if (visibleRegion == null) return isComplete();
+        return region.contains(visibleRegion.intersection(new Rectangle(0, 0, sourceWidth, sourceHeight)));
+    }
+
+    /**
+     * @param other ein anderes dekodiertes Bild derselben Datei
+     * @return <code>true</code>, wenn dieses Bild feiner aufgelöst ist als <code>other</code> und mindestens
+     * denselben Ausschnitt enthält
+     */
+    public boolean isFinerThan(DecodedFrame other) {
+        return subsampling < other.subsampling && region.contains(other.region);
+    }
+}
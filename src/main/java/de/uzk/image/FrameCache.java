@@ -0,0 +1,212 @@
+package de.uzk.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.*;
+
+/**
+ * Zwischenspeicher für bereits dekodierte Bilder, damit ein erneuter Wechsel auf ein kürzlich angezeigtes
+ * Bild (Zeit, Ebene) ohne Festplattenzugriff und Dekodieren auskommt.
+ * <p>
+ * Die Größe des Caches wird nicht über die Anzahl der Einträge, sondern über den belegten Speicher
+ * (in Bytes) begrenzt. Wird das Budget überschritten, werden die am längsten nicht verwendeten Bilder
+ * verworfen (LRU). Das Budget wird auf einen Teil des maximalen Heaps begrenzt, damit auch ein zu groß
+ * eingestellter Cache nicht zu einem {@link OutOfMemoryError} führt.
+ * <p>
+ * Die Schlüssel sind {@link ImageFile}s, deren Gleichheit ausschließlich über Zeit und Ebene definiert ist.
+ * Damit ein verspätet abgelegtes Bild eines anderen Projekts nicht fälschlich ausgeliefert wird, wird beim
+ * Zugriff zusätzlich der Dateipfad verglichen.
+ * <p>
+ * Jedes Bild wird in der Auflösung abgelegt, in der es dekodiert wurde (siehe {@link DecodedFrame}). Ein Eintrag
+ * gilt nur dann als Treffer, wenn er für das angefragte {@link DecodeTarget} fein genug aufgelöst ist.
+ * Das aktuelle Ziel des Bildbereichs wird ebenfalls hier hinterlegt, damit Hintergrund-Threads
+ * (z.B. {@link FramePrefetcher}) in passender Auflösung vorladen können.
+ * <p>
+ * Bilder, die wiederholt benötigt werden (z.B. der Ebenenstapel eines Zeitpunkts beim Durchlaufen der Ebenen),
+ * können angeheftet werden. Sie werden erst verdrängt, wenn alle übrigen Bilder bereits verworfen wurden.
+ * <p>
+ * Alle Methoden sind synchronisiert, da der Cache sowohl vom Event-Dispatch-Thread als auch von
+ * Hintergrund-Threads verwendet wird.
+ */
+public class FrameCache {
+    // Anteil des maximalen Heaps, den der Cache höchstens belegt; der Rest bleibt für Bearbeitung und Oberfläche
+    private static final double MAX_HEAP_SHARE = 0.5;
+    // accessOrder = true: Die Iterationsreihenfolge entspricht der Reihenfolge der letzten Zugriffe
+    private final Map<ImageFile, Entry> frames = new LinkedHashMap<>(16, 0.75f, true);
+    // Wie oft ein Bild angeheftet wurde; mehrere Nutzer können dasselbe Bild anheften
+    private final Map<ImageFile, Integer> pinCounts = new HashMap<>();
+    private long maxBytes;
+    private long usedBytes;
+    private DecodeTarget decodeTarget = DecodeTarget.FULL_RESOLUTION;
+
+    public FrameCache(long maxBytes) {
+        setMaxBytes(maxBytes);
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Legt das Speicherbudget fest und verwirft ggf. Bilder, bis das neue Budget eingehalten wird. Das Budget
+     * wird dabei auf einen Teil des maximalen Heaps begrenzt (siehe {@link #getMaxBytes()}).
+     *
+     * @param maxBytes maximal belegter Speicher in Bytes; <code>0</code> deaktiviert den Cache
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        long maxHeapBytes = (long) (Runtime.getRuntime().maxMemory() * MAX_HEAP_SHARE);
+        this.maxBytes = Math.max(0, Math.min(maxBytes, maxHeapBytes));
+        evict();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized DecodeTarget getDecodeTarget() {
+        return decodeTarget;
+    }
+
+    /**
+     * Legt die Auflösung fest, in der Bilder für den Bildbereich aktuell benötigt werden.
+     *
+     * @param decodeTarget die benötigte Auflösung
+     */
+    public synchronized void setDecodeTarget(DecodeTarget decodeTarget) {
+        if (decodeTarget == null) throw new NullPointerException("Decode target is null.");
+        this.decodeTarget = decodeTarget;
+    }
+
+    public synchronized int size() {
+        return frames.size();
+    }
+
+    /**
+     * @param imageFile das gesuchte Bild
+     * @return das dekodierte Bild (in beliebiger Auflösung) oder <code>null</code>, falls es nicht (mehr) im
+     * Cache liegt
+     */
+    public synchronized DecodedFrame get(ImageFile imageFile) {
+        if (imageFile == null) return null;
+        Entry entry = frames.get(imageFile);
+        return entry != null && entry.belongsTo(imageFile) ? entry.frame : null;
+    }
+
+    /**
+     * @param imageFile das gesuchte Bild
+     * @param target    die mindestens benötigte Auflösung
+     * @return das dekodierte Bild oder <code>null</code>, falls es nicht im Cache liegt oder zu grob aufgelöst ist
+     */
+    public synchronized DecodedFrame get(ImageFile imageFile, DecodeTarget target) {
+        DecodedFrame frame = get(imageFile);
+        return frame != null && frame.isSufficientFor(target) ? frame : null;
+    }
+
+    public synchronized boolean contains(ImageFile imageFile) {
+        return get(imageFile) != null;
+    }
+
+    public synchronized boolean contains(ImageFile imageFile, DecodeTarget target) {
+        return get(imageFile, target) != null;
+    }
+
+    /**
+     * Legt ein dekodiertes Bild im Cache ab. Bilder, die allein das Budget übersteigen, werden nicht gespeichert.
+     * Ein bereits vorhandenes, feiner aufgelöstes Bild derselben Datei wird nicht durch ein gröberes ersetzt.
+     *
+     * @param imageFile das Bild, zu dem die Pixeldaten gehören
+     * @param frame     die dekodierten Pixeldaten; werden vom Cache nicht kopiert und dürfen daher nicht mehr
+     *                  verändert werden
+     */
+    public synchronized void put(ImageFile imageFile, DecodedFrame frame) {
+        if (imageFile == null || frame == null) return;
+
+        DecodedFrame existing = get(imageFile);
+        if (existing != null && existing.isFinerThan(frame)) return;
+
+        long bytes = sizeOf(frame.getImage());
+        if (bytes > maxBytes) return;
+
+        Entry previous = frames.put(imageFile, new Entry(imageFile, frame, bytes));
+        if (previous != null) usedBytes -= previous.bytes;
+        usedBytes += bytes;
+        evict();
+    }
+
+    /**
+     * Heftet Bilder an, sodass sie beim Überschreiten des Budgets zuletzt verdrängt werden. Das Budget selbst
+     * wird dadurch nicht erhöht; wer anheftet, muss also selbst darauf achten, dass die Bilder hineinpassen.
+     * Jedes Anheften muss durch {@link #unpin} wieder aufgehoben werden.
+     *
+     * @param imageFiles die Bilder; sie müssen noch nicht im Cache liegen
+     */
+    public synchronized void pin(Collection<ImageFile> imageFiles) {
+        for (ImageFile imageFile : imageFiles) pinCounts.merge(imageFile, 1, Integer::sum);
+    }
+
+    /**
+     * Hebt ein vorheriges {@link #pin} auf.
+     *
+     * @param imageFiles die Bilder
+     */
+    public synchronized void unpin(Collection<ImageFile> imageFiles) {
+        for (ImageFile imageFile : imageFiles) pinCounts.computeIfPresent(imageFile, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    public synchronized boolean isPinned(ImageFile imageFile) {
+        return pinCounts.containsKey(imageFile);
+    }
+
+    /**
+     * Verwirft alle Bilder und hebt alle Anheftungen auf.
+     */
+    public synchronized void clear() {
+        frames.clear();
+        pinCounts.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * Schätzt den Speicherbedarf eines Bildes anhand seines {@link DataBuffer}s.
+     *
+     * @param image das Bild
+     * @return belegter Speicher in Bytes
+     */
+    public static long sizeOf(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long bytesPerElement = DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        return (long) buffer.getSize() * buffer.getNumBanks() * bytesPerElement;
+    }
+
+    private void evict() {
+        // Zuerst nur nicht angeheftete Bilder verdrängen, erst danach (falls nötig) auch angeheftete
+        evict(false);
+        evict(true);
+    }
+
+    private void evict(boolean includePinned) {
+        Iterator<Entry> iterator = frames.values().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (!includePinned && pinCounts.containsKey(entry.imageFile)) continue;
+            usedBytes -= entry.bytes;
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final ImageFile imageFile;
+        private final DecodedFrame frame;
+        private final long bytes;
+
+        private Entry(ImageFile imageFile, DecodedFrame frame, long bytes) {
+            this.imageFile = imageFile;
+            this.frame = frame;
+            this.bytes = bytes;
+        }
+
+        private boolean belongsTo(ImageFile other) {
+            return imageFile.getFilePath().equals(other.getFilePath());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package de.uzk.image;
+
+import de.uzk.io.FrameSource;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Dekodiert Bilder im Hintergrund, damit der Event-Dispatch-Thread während des Ladens nicht blockiert.
+ * <p>
+ * Anfragen werden zusammengefasst: Es wird immer nur ein Bild gleichzeitig dekodiert. Treffen währenddessen
+ * weitere Anfragen ein, wird nur die zuletzt angeforderte Position (Zeit, Ebene) vorgemerkt und dekodiert,
+ * sobald das laufende Bild fertig ist; dazwischenliegende Anfragen entfallen. Das fertige Bild wird auf dem
+ * Event-Dispatch-Thread an den Aufrufer übergeben, sofern bis dahin kein neueres Bild ausgeliefert wurde.
+ * So werden beim schnellen Scrollen so viele Bilder angezeigt, wie dekodiert werden können, ohne dass
+ * Eingaben verloren gehen.
+ * <p>
+ * Bereits dekodierte Bilder werden im {@link FrameCache} abgelegt. Liegt ein angefordertes Bild dort in
+ * ausreichender Auflösung vor, wird es ohne Umweg über den Hintergrund-Thread sofort ausgeliefert.
+ * <p>
+ * Alle Methoden müssen auf dem Event-Dispatch-Thread aufgerufen werden.
+ *
+ * @see ImageEditor
+ */
+public class FrameDecoder {
+    // Ein gemeinsamer Hintergrund-Thread für alle Instanzen (z.B. nach einem Gui#rebuild)
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FrameDecoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final FrameCache frameCache;
+    private final FrameSource frameSource;
+    // Jede Anfrage erhält eine fortlaufende Nummer; ältere Ergebnisse als das zuletzt ausgelieferte werden verworfen
+    private long generation;
+    private long deliveredGeneration;
+    // Die Anfrage, die gerade dekodiert wird, und die zuletzt eingetroffene, die danach an der Reihe ist
+    private Request inFlight;
+    private Request next;
+
+    public FrameDecoder(FrameCache frameCache, FrameSource frameSource) {
+        this.frameCache = frameCache;
+        this.frameSource = frameSource;
+    }
+
+    /**
+     * Fordert das Dekodieren des gegebenen Bildes an. Eine vorgemerkte, noch nicht begonnene Anfrage wird dabei
+     * ersetzt. Liegt das Bild bereits im Cache, wird <code>onDecoded</code> direkt aufgerufen.
+     *
+     * @param imageFile das zu dekodierende Bild
+     * @param target    die mindestens benötigte Auflösung
+     * @param onDecoded wird auf dem Event-Dispatch-Thread mit dem Bild aufgerufen (oder mit <code>null</code>,
+     *                  falls das Bild nicht geladen werden konnte), sofern bis dahin kein neueres Bild
+     *                  ausgeliefert wurde
+     */
+    public void request(ImageFile imageFile, DecodeTarget target, Consumer<DecodedFrame> onDecoded) {
+        Request request = new Request(++generation, imageFile, target, onDecoded);
+        next = null;
+        if (!deliverCached(request)) schedule(request);
+    }
+
+    /**
+     * Verwirft alle offenen Anfragen, ohne eine neue zu starten. Ein bereits laufender Dekodiervorgang wird nicht
+     * unterbrochen, sein Ergebnis aber nicht mehr ausgeliefert.
+     */
+    public void cancel() {
+        next = null;
+        deliveredGeneration = ++generation;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private boolean deliverCached(Request request) {
+        DecodedFrame cached = frameCache.get(request.imageFile, request.target);
+        if (cached == null) return false;
+
+        deliver(request, cached);
+        return true;
+    }
+
+    private void schedule(Request request) {
+        if (inFlight != null) {
+            // Wird dekodiert, sobald das laufende Bild fertig ist
+            next = request;
+            return;
+        }
+
+        inFlight = request;
+        EXECUTOR.execute(() -> {
+            DecodedFrame frame = null;
+            try {
+                frame = frameSource.openFrame(request.imageFile, request.target);
+                frameCache.put(request.imageFile, frame);
+            } finally {
+                // Auch bei einem Fehler muss die nächste Anfrage an die Reihe kommen
+                DecodedFrame result = frame;
+                SwingUtilities.invokeLater(() -> finished(request, result));
+            }
+        });
+    }
+
+    private void finished(Request request, DecodedFrame frame) {
+        inFlight = null;
+        deliver(request, frame);
+
+        Request pending = next;
+        next = null;
+        if (pending != null && !deliverCached(pending)) schedule(pending);
+    }
+
+    private void deliver(Request request, DecodedFrame frame) {
+        if (request.generation <= deliveredGeneration) return;
+        deliveredGeneration = request.generation;
+        request.onDecoded.accept(frame);
+    }
+
+    private static final class Request {
+        private final long generation;
+        private final ImageFile imageFile;
+        private final DecodeTarget target;
+        private final Consumer<DecodedFrame> onDecoded;
+
+        private Request(long generation, ImageFile imageFile, DecodeTarget target, Consumer<DecodedFrame> onDecoded) {
+            this.generation = generation;
+            this.imageFile = imageFile;
+            this.target = target;
+            this.onDecoded = onDecoded;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package de.uzk.image;
+
+import de.uzk.gui.observer.ToggleListener;
+import de.uzk.io.FrameSource;
+
+import java.util.*;
+import java.util.concurrent.Future;
+
+import static de.uzk.Main.workspace;
+
+/**
+ * Dekodiert beim Scrollen die nächsten Bilder entlang der aktiven {@link Axis} im Hintergrund vor und legt
+ * sie im {@link FrameCache} ab, damit sie bereits fertig vorliegen, sobald der Nutzer weiterscrollt.
+ * <p>
+ * Wie weit vorausgeladen wird, hängt von der Scrollgeschwindigkeit ab: Je schneller gescrollt wird, desto
+ * mehr Bilder werden in Scrollrichtung angefordert (siehe {@link ScrollMovement}). Ändert sich die Richtung oder
+ * die Achse, werden alle noch ausstehenden Anfragen abgebrochen; ebenso beim Schließen oder Wechseln des Projekts
+ * und beim Start der {@link Playback Wiedergabe}.
+ *
+ * @see de.uzk.action.ActionHandler
+ */
+public class FramePrefetcher implements ToggleListener {
+    private final FrameCache frameCache;
+    private final FrameSource frameSource;
+    private final Map<ImageFile, Future<?>> pending = new HashMap<>();
+    private final ScrollMovement movement = new ScrollMovement();
+
+    public FramePrefetcher(FrameCache frameCache, FrameSource frameSource) {
+        this.frameCache = frameCache;
+        this.frameSource = frameSource;
+    }
+
+    /**
+     * Wird nach jedem Scrollschritt aufgerufen und plant die vorauszuladenden Bilder neu.
+     *
+     * @param axis     die Achse, entlang der gescrollt wurde
+     * @param rotation Anzahl der übersprungenen Bilder; das Vorzeichen gibt die Richtung an
+     */
+    public void onScroll(Axis axis, int rotation) {
+        if (axis == null || rotation == 0 || !workspace.isLoaded()) return;
+
+        int framesAhead = movement.update(axis, rotation, System.nanoTime());
+        // Nach einem Richtungs- oder Achsenwechsel wird keines der bisher angeforderten Bilder mehr benötigt
+        if (movement.isNewMovement()) cancelPending();
+        prefetch(planFrames(axis, rotation, framesAhead));
+    }
+
+    /**
+     * Bricht alle noch ausstehenden Anfragen ab und beendet die aktuelle Scrollbewegung.
+     */
+    public void cancel() {
+        cancelPending();
+        movement.reset();
+    }
+
+    @Override
+    public void toggleOn() {
+        // Ein anderes Projekt wurde geladen
+        cancel();
+    }
+
+    @Override
+    public void toggleOff() {
+        cancel();
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private List<ImageFile> planFrames(Axis axis, int step, int framesAhead) {
+        List<ImageFile> frames = new ArrayList<>(framesAhead);
+        int time = workspace.getTime();
+        int level = workspace.getLevel();
+
+        for (int i = 1; i <= framesAhead; i++) {
+            if (axis == Axis.TIME) time += step;
+            else level += step;
+            if (time < 0 || time > workspace.getMaxTime() || level < 0 || level > workspace.getMaxLevel()) break;
+            frames.add(workspace.getImageFile(time, level));
+        }
+        return frames;
+    }
+
+    private void prefetch(List<ImageFile> frames) {
+        // Anfragen, die nicht mehr benötigt werden (z.B. nach einem Richtungswechsel), abbrechen
+        Iterator<Map.Entry<ImageFile, Future<?>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ImageFile, Future<?>> entry = iterator.next();
+            if (entry.getValue().isDone() || !frames.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                iterator.remove();
+            }
+        }
+
+        // Neue Anfragen in Scrollrichtung (nächstes Bild zuerst) einreihen; in der Auflösung des Bildbereichs
+        DecodeTarget target = frameCache.getDecodeTarget();
+        for (ImageFile imageFile : frames) {
+            if (pending.containsKey(imageFile) || frameCache.contains(imageFile, target)) continue;
+            pending.put(imageFile, frameSource.decodeInBackground(imageFile, target, frameCache));
+        }
+    }
+
+    private void cancelPending() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+}
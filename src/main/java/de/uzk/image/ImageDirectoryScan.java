@@ -0,0 +1,206 @@
+package de.uzk.image;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.uzk.Main.logger;
+
+/**
+ * Wertet die Einträge eines Bildverzeichnisses parallel aus: Dateinamen prüfen, Zeit und Ebene lesen und die
+ * gefundenen Bilder nach Zeit und Ebene sortieren.
+ * <p>
+ * Die Einträge werden per Fork/Join in Abschnitte zerlegt. Jeder Abschnitt schreibt für jeden seiner Einträge
+ * einen Schlüssel aus Zeit, Ebene und Index an dieselbe Stelle eines gemeinsamen <code>long</code>-Puffers, sodass
+ * die Threads ohne Synchronisation arbeiten. Anschließend werden die Schlüssel parallel sortiert; erst dann
+ * werden die {@link ImageFile}s erzeugt.
+ * <p>
+ * Der Fortschritt wird ausschließlich vom aufrufenden Thread gemeldet. Wird dieser unterbrochen, brechen auch
+ * alle Abschnitte ab.
+ *
+ * @see Workspace
+ */
+final class ImageDirectoryScan {
+    static final int MAX_TIME = 9_999;
+    static final int MAX_LEVEL = 999;
+    // Unterhalb dieser Anzahl an Einträgen wird ein Abschnitt nicht weiter aufgeteilt
+    private static final int MIN_CHUNK_SIZE = 1 << 11;
+    // Abstand, in dem der Fortschritt gemeldet wird
+    private static final long PROGRESS_INTERVAL_MS = 50;
+    // Einträge im Puffer, die kein (gültiges) Bild sind
+    private static final long NO_IMAGE = -1;
+    private static final long INVALID_IMAGE = -2;
+    // Aufbau eines Schlüssels: Zeit (14 Bit) | Ebene (10 Bit) | Index (32 Bit)
+    private static final int TIME_SHIFT = 42;
+    private static final int LEVEL_SHIFT = 32;
+    private static final long LEVEL_MASK = (1L << 10) - 1;
+    private static final long INDEX_MASK = (1L << 32) - 1;
+    private final List<Path> paths;
+    private final ImageFileNameParser fileNameParser;
+    private final long[] keys;
+    // Fortschritt der Abschnitte
+    private final AtomicInteger scannedCount = new AtomicInteger();
+    private final AtomicInteger imagesCount = new AtomicInteger();
+    private volatile Path lastScannedPath;
+    private volatile boolean cancelled;
+    // Ergebnis
+    private int maxTime;
+    private int maxLevel;
+
+    /**
+     * @param paths          die Einträge des Verzeichnisses; die Liste muss wahlfreien Zugriff erlauben
+     * @param fileNameParser prüft die Dateinamen
+     */
+    ImageDirectoryScan(List<Path> paths, ImageFileNameParser fileNameParser) {
+        this.paths = paths;
+        this.fileNameParser = fileNameParser;
+        this.keys = new long[paths.size()];
+    }
+
+    /**
+     * Führt die Auswertung aus und meldet währenddessen den Fortschritt.
+     *
+     * @param progress erhält den Fortschritt
+     * @return die gefundenen Bilder, sortiert nach Zeit, Ebene und Dateiname
+     * @throws InterruptedException falls der aufrufende Thread unterbrochen wurde
+     */
+    List<ImageFile> run(LoadingImageListener progress) throws InterruptedException {
+        ForkJoinTask<Void> task = ForkJoinPool.commonPool().submit(new ScanTask(0, paths.size()));
+        try {
+            while (!awaitScan(task)) {
+                Path path = lastScannedPath;
+                if (path != null) progress.onScanningUpdate(paths.size(), scannedCount.get(), path, imagesCount.get());
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            task.cancel(false);
+            throw e;
+        }
+
+        logInvalidImages();
+        return collectImageFiles();
+    }
+
+    int getMaxTime() {
+        return maxTime;
+    }
+
+    int getMaxLevel() {
+        return maxLevel;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private static boolean awaitScan(ForkJoinTask<Void> task) throws InterruptedException {
+        try {
+            task.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Scanning the images directory failed.", e.getCause());
+        }
+    }
+
+    private void scan(int from, int to) {
+        int images = 0;
+        for (int i = from; i < to && !cancelled; i++) {
+            Path path = paths.get(i);
+            long key = fileNameParser.parse(path.getFileName().toString());
+
+            // Nur passende Dateinamen werden auf reguläre Dateien geprüft
+            if (key == ImageFileNameParser.NO_MATCH || !Files.isRegularFile(path)) {
+                keys[i] = NO_IMAGE;
+                continue;
+            }
+
+            int time = ImageFileNameParser.unpackTime(key);
+            int level = ImageFileNameParser.unpackLevel(key);
+            if (time > MAX_TIME || level > MAX_LEVEL) {
+                keys[i] = INVALID_IMAGE;
+                continue;
+            }
+            keys[i] = (long) time << TIME_SHIFT | (long) level << LEVEL_SHIFT | i;
+            images++;
+        }
+
+        imagesCount.addAndGet(images);
+        scannedCount.addAndGet(to - from);
+        lastScannedPath = paths.get(to - 1);
+    }
+
+    /**
+     * Meldet ungültige Bilder. Das geschieht erst hier im aufrufenden Thread, damit die Reihenfolge im Log
+     * der des Verzeichnisses entspricht.
+     */
+    private void logInvalidImages() {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != INVALID_IMAGE) continue;
+
+            String fileName = paths.get(i).getFileName().toString();
+            long key = fileNameParser.parse(fileName);
+            int time = ImageFileNameParser.unpackTime(key);
+            int level = ImageFileNameParser.unpackLevel(key);
+
+            List<String> invalidParts = new ArrayList<>();
+            if (time > MAX_TIME)
+                invalidParts.add("Invalid Time=%d => Valid Range=[%d, %d]".formatted(time, 0, MAX_TIME));
+            if (level > MAX_LEVEL)
+                invalidParts.add("Invalid Level=%d => Valid Range=[%d, %d]".formatted(level, 0, MAX_LEVEL));
+            logger.warn("Could not load the image-file '%s'. (Cause: %s)".formatted(fileName, String.join(" | ", invalidParts)));
+        }
+    }
+
+    private List<ImageFile> collectImageFiles() {
+        // Gültige Schlüssel nach vorne schieben und nach Zeit, Ebene (und Index) sortieren
+        int count = 0;
+        for (long key : keys) {
+            if (key >= 0) keys[count++] = key;
+        }
+        Arrays.parallelSort(keys, 0, count);
+
+        ImageFile[] imageFiles = new ImageFile[count];
+        Arrays.parallelSetAll(imageFiles, i -> {
+            long key = keys[i];
+            return new ImageFile(paths.get((int) (key & INDEX_MASK)), (int) (key >>> TIME_SHIFT), (int) (key >>> LEVEL_SHIFT & LEVEL_MASK));
+        });
+
+        // Doppelte Bilder (gleiche Zeit und Ebene) nach Dateinamen ordnen; bei sortierter Eingabe in linearer Zeit
+        Arrays.sort(imageFiles);
+
+        for (ImageFile imageFile : imageFiles) {
+            maxLevel = Math.max(maxLevel, imageFile.getLevel());
+        }
+        if (count > 0) maxTime = imageFiles[count - 1].getTime();
+        return Arrays.asList(imageFiles);
+    }
+
+    /**
+     * Wertet einen Abschnitt der Einträge aus und teilt ihn auf, solange er groß genug ist.
+     */
+    private final class ScanTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        private ScanTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_CHUNK_SIZE) {
+                if (from < to) scan(from, to);
+                return;
+            }
+
+            int middle = from + (to - from) / 2;
+            invokeAll(new ScanTask(from, middle), new ScanTask(middle, to));
+        }
+    }
+}
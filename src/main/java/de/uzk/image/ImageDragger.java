@@ -34,12 +34,19 @@ public class ImageDragger extends MouseAdapter implements KeyListener {
                 moveEdit = new MoveEdit();
                 last = e.getPoint();
             }
-            int dx =  last.x - e.getX();
-            int dy =  last.y - e.getY();
+            // Die Verschiebung wird in Pixeln der Originaldatei gespeichert. Die Koordinaten der Events liegen bereits
+            // in Pixeln der Zeichenfläche (Gerätepixel, siehe SensitiveImagePanel) und werden nicht erneut skaliert.
+            double sourcePixels = imageEditor.getSourcePixelsPerCanvasPixel();
+            int dx = (int) Math.round((last.x - e.getX()) * sourcePixels);
+            int dy = (int) Math.round((last.y - e.getY()) * sourcePixels);
+            // Zu kleine Bewegungen werden gesammelt, bis sie mindestens einem Pixel der Originaldatei entsprechen
+            if (dx == 0 && dy == 0) return;
             moveEdit.update(dx, dy);
             Config config = workspace.getConfig();
             config.setInsets(config.getInsetX() + dx, config.getInsetY() + dy);
-            imageEditor.updateImage(true);
+            // Während des Ziehens wird nur neu transformiert; geladen wird erst beim Loslassen
+            imageEditor.beginInteraction(RenderQuality.BALANCED);
+            imageEditor.updateTransform();
             last = e.getPoint();
         }
     }
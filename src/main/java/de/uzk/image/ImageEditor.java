@@ -1,19 +1,21 @@
 package de.uzk.image;
 
 import de.uzk.config.Config;
-import de.uzk.io.ImageLoader;
 import de.uzk.markers.Marker;
 import de.uzk.markers.interactions.MarkerInteractionHandler;
 import de.uzk.utils.GraphicsUtils;
 
+import javax.swing.*;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.image.BufferedImage;
-import java.awt.image.RescaleOp;
-import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import static de.uzk.Main.logger;
+import static de.uzk.Main.settings;
 import static de.uzk.Main.workspace;
 
 /**
@@ -24,21 +26,54 @@ import static de.uzk.Main.workspace;
  *
  */
 public class ImageEditor {
-    //Der "tatsächliche" Zeichenbereich für das Bild nach Zoom und Skalierung auf die Größe des ImagePanels
-    private final Rectangle drawArea = new Rectangle(0, 0);
-    private BufferedImage currentImage;
-    private BufferedImage cache;
+    // Das aktuell dargestellte, dekodierte Bild (ggf. mit reduzierter Auflösung) und die zugehörige Datei.
+    // Es bleibt unverändert im Speicher, damit Bearbeitungen nicht erneut dekodieren müssen.
+    private ImageFile currentImageFile;
+    private DecodedFrame currentFrame;
+    // Das aktuelle Bild nach Helligkeit/Kontrast und ggf. verlustfrei um Vielfache von 90° gedreht bzw. gespiegelt,
+    // aber vor allen übrigen Transformationen. adjustedOrientation ist die darin bereits enthaltene Ausrichtung.
+    private BufferedImage adjustedImage;
+    private Orientation adjustedOrientation;
+    // Die einzelnen Ebenen werden nur neu gezeichnet, wenn sich ihr Inhalt ändert (siehe ImageLayers)
+    private BufferedImage baseLayer;
+    private BufferedImage markerLayer;
+    private BufferedImage dragPointLayer;
+    private ImageLayers currentLayers;
+    // Größe des Bildbereichs in Gerätepixeln; bestimmt, in welcher Auflösung dekodiert wird
+    private Dimension viewportSize = new Dimension(0, 0);
     // Der Marker, der vom Nutzer aktuell skaliert/rotiert wird, falls vorhanden.
     private Marker focusedMarker;
-    // Transformationen, die auf das Bild angewendet werden.
+    // Transformationen, die auf das Bild angewendet werden (dekodierte Pixel -> Zeichenfläche).
     private AffineTransform imageTransform = new AffineTransform();
-    // Transformationen, die auf Marker angewendet werden.
+    // Transformationen, die auf Marker angewendet werden (Pixel der Originaldatei -> Zeichenfläche).
     private AffineTransform markerTransform = new AffineTransform();
-    private Consumer<BufferedImage> newImageConsumer;
+    private Consumer<ImageLayers> newImageConsumer;
+    // Dekodiert die Bilder im Hintergrund
+    private final FrameDecoder frameDecoder = new FrameDecoder(workspace.getFrameCache(), workspace.getFrameSource());
+    // Ist bereits eine Anfrage für das aktuelle Bild eingeplant, werden weitere Aufrufe mit ihr zusammengefasst
+    private boolean frameRequestPending;
+    // Wiederverwendbare Zwischenbilder für Helligkeit/Kontrast und Ausrichtung; die Ebenen werden ebenso an Ort und
+    // Stelle neu gezeichnet (siehe reuse). Das Panel zeichnet wie der ImageEditor auf dem Event-Dispatch-Thread und
+    // erhält jedes überschriebene Bild unmittelbar danach, daher genügt je ein Bild.
+    private BufferedImage toneMappedImage;
+    private BufferedImage orientedImage;
+    // Wird erst neu berechnet, wenn sich Helligkeit oder Kontrast ändern
+    private ToneMapping toneMapping;
+    // Der zuletzt bemalte Bereich jedes gezeichneten Markers (in Pixeln der Zeichenfläche), damit beim Bearbeiten
+    // eines Markers nur dieser Bereich neu gezeichnet werden muss. Marker werden direkt verändert, daher Identität.
+    private final Map<Marker, Rectangle> markerBounds = new IdentityHashMap<>();
+    // Qualität, in der das Bild aktuell transformiert wird. Nach einer Interaktion wird das Bild verzögert
+    // in voller Qualität neu gezeichnet (siehe Settings#getRefineDelay).
+    private RenderQuality renderQuality = RenderQuality.HIGH;
+    private final Timer refineTimer = new Timer(0, e -> refine());
+
+    public ImageEditor() {
+        refineTimer.setRepeats(false);
+    }
 
     // region Getter
-    public BufferedImage getCurrentImage() {
-        return currentImage;
+    public ImageLayers getCurrentLayers() {
+        return currentLayers;
     }
 
     /**
@@ -50,19 +85,29 @@ public class ImageEditor {
         return markerTransform;
     }
 
+    /**
+     * @return Anzahl der Pixel der Originaldatei, die (je Richtung) einem Pixel der Zeichenfläche entsprechen.
+     * Die Zeichenfläche ist in Gerätepixeln angelegt; Mauskoordinaten müssen also ebenfalls in Gerätepixeln vorliegen.
+     *
+     */
+    public double getSourcePixelsPerCanvasPixel() {
+        return currentFrame == null ? 1 : 1 / getCanvasScale(currentFrame);
+    }
+
     //endregion
 
     //region public Methoden für Bildupdates
 
     /**
      * Setzt einen Eventhandler, der aufgerufen wird, sobald ein neues, fertig bearbeitetes Bild verfügbar ist.
+     * Übergeben werden die Ebenen des Bildes, die erst beim Zeichnen übereinandergelegt werden.
      * Momentan wird nur ein Handler gespeichert, d.h. mehrere Aufrufe dieser Methode überschreiben vorherig
      * registrierte Handler.
      *
      * @param listener ein Consumer, der mit jedem neuen Bild aufgerufen werden soll.
      *
      */
-    public void onNewImageAvailable(Consumer<BufferedImage> listener) {
+    public void onNewImageAvailable(Consumer<ImageLayers> listener) {
         newImageConsumer = listener;
     }
 
@@ -78,38 +123,202 @@ public class ImageEditor {
         focusedMarker = marker;
     }
 
+    /**
+     * Teilt mit, wie groß der Bildbereich (in Gerätepixeln) ist. Bilder werden nur so fein dekodiert, wie es
+     * für diese Größe nötig ist. Reicht die Auflösung des aktuellen Bildes nach einer Vergrößerung nicht mehr aus,
+     * wird es neu dekodiert.
+     *
+     * @param viewportSize Größe des Bildbereichs in Gerätepixeln
+     *
+     */
+    public void setViewportSize(Dimension viewportSize) {
+        if (this.viewportSize.equals(viewportSize)) return;
+        this.viewportSize = new Dimension(viewportSize);
+
+        DecodeTarget target = createDecodeTarget();
+        workspace.getFrameCache().setDecodeTarget(target);
+        if (currentFrame == null) return;
+        if (!currentFrame.isSufficientFor(target)) {
+            updateImage(true);
+            return;
+        }
+
+        // Die Zeichenfläche hat die Größe des Bildbereichs und muss daher neu gezeichnet werden
+        beginInteraction(RenderQuality.BALANCED);
+        updateTransform();
+    }
+
     /**
      * Lädt und bearbeitet das richtige Bild und ruft anschließend den über {@link #onNewImageAvailable} festgelegten
-     * Callback auf.
+     * Callback auf. Muss ein neues Bild geladen werden, geschieht dies asynchron über den {@link FrameDecoder};
+     * der Callback wird dann erst aufgerufen, sobald das Bild fertig dekodiert ist. Mehrere Aufrufe, die vor der
+     * nächsten Abarbeitung der Event-Queue eintreffen (z.B. beim schnellen Scrollen), werden zusammengefasst und
+     * fordern nur das dann aktuelle Bild an.
      *
      * @param needsFullRedraw Wenn <code>false</code>, wird nicht das gesamte Bild neu gezeichnet, sondern nur Marker.
      *                        Hilfreich, um unnötige Berechnungen desselben Bildes zu vermeiden.
      *
      */
     public void updateImage(boolean needsFullRedraw) {
-        needsFullRedraw |= cache == null;
-        currentImage = null;
-        if (!workspace.isLoaded()) return;
-        BufferedImage newImage = null;
+        needsFullRedraw |= baseLayer == null;
+        if (!workspace.isLoaded()) {
+            frameDecoder.cancel();
+            currentLayers = null;
+            return;
+        }
+
         if (needsFullRedraw) {
-            Path imagePath = workspace.getCurrentImageFile().getFilePath();
-            newImage = ImageLoader.openImage(imagePath, false);
-            if (newImage != null) {
-                recalculateTransform(newImage);
-                calculateRescaleOp().filter(newImage, newImage);
-
-            } else {
-                logger.error("Failed to load image: " + imagePath);
-                return;
+            if (!frameRequestPending) {
+                frameRequestPending = true;
+                SwingUtilities.invokeLater(this::requestCurrentFrame);
             }
+            return;
+        }
+        redrawMarkers();
+        newImageAvailable();
+    }
+
+    /**
+     * Zeichnet nach einer Änderung eines einzelnen Markers (Verschieben, Skalieren, Rotieren) nur den Bereich
+     * neu, den der Marker vorher und nachher bemalt. Alle anderen Marker in diesem Bereich werden ebenfalls
+     * neu gezeichnet, der Rest der Ebenen bleibt unverändert.
+     *
+     * @param marker der veränderte Marker
+     *
+     */
+    public void updateMarker(Marker marker) {
+        Rectangle oldBounds = markerBounds.get(marker);
+        if (!workspace.isLoaded() || markerLayer == null || oldBounds == null) {
+            updateImage(false);
+            return;
+        }
+
+        Rectangle newBounds = measureMarker(marker);
+        markerBounds.put(marker, newBounds);
+        Rectangle dirtyRegion = oldBounds.union(newBounds)
+            .intersection(new Rectangle(0, 0, markerLayer.getWidth(), markerLayer.getHeight()));
+        if (dirtyRegion.isEmpty()) return;
+
+        redrawMarkers(dirtyRegion);
+        newImageAvailable(dirtyRegion);
+    }
+
+    /**
+     * Zeichnet nur die Eckpunkte des fokussierten Markers neu, z.B. nachdem ein anderer Marker fokussiert wurde
+     * (siehe {@link #setFocusedMarker}). Bild und Marker bleiben unverändert.
+     *
+     */
+    public void updateDragPoints() {
+        if (!workspace.isLoaded() || baseLayer == null) return;
+        redrawDragPoints();
+        newImageAvailable();
+    }
+
+    /**
+     * Wendet geänderte Bearbeitungen (Helligkeit, Kontrast, Zoom, Drehen, ...) auf das aktuelle Bild an. Das
+     * bereits dekodierte Bild wird dabei wiederverwendet, solange seine Auflösung und sein Ausschnitt für die
+     * neuen Einstellungen ausreichen; nur andernfalls wird es (über {@link #updateImage}) neu dekodiert.
+     *
+     */
+    public void applyEdits() {
+        if (!workspace.isLoaded() || currentFrame == null) {
+            updateImage(true);
+            return;
+        }
+
+        ImageFile imageFile = workspace.getCurrentImageFile();
+        DecodeTarget target = createDecodeTarget();
+        boolean sameFile = imageFile != null && imageFile.getFilePath().equals(currentImageFile.getFilePath());
+        if (!sameFile || !currentFrame.isSufficientFor(target)) {
+            updateImage(true);
+            return;
+        }
+
+        // Eine noch laufende Anfrage würde das aktuelle Bild sonst später überschreiben
+        frameDecoder.cancel();
+        workspace.getFrameCache().setDecodeTarget(target);
+        applyDecodedFrame(imageFile, currentFrame);
+    }
+
+    /**
+     * Berechnet nur die Transformationen (Spiegeln, Drehen, Verschieben, Zoomen) neu und zeichnet das bereits
+     * dekodierte und bearbeitete Bild erneut, ohne es neu zu laden. Gedacht für fortlaufende Änderungen wie das
+     * Verschieben des Bildes mit der Maus. Wurde nur ein Ausschnitt dekodiert, bleiben neu sichtbare Bereiche
+     * leer, bis das Bild mit {@link #updateImage} vollständig aktualisiert wird.
+     *
+     */
+    public void updateTransform() {
+        if (!workspace.isLoaded() || currentFrame == null || adjustedImage == null) {
+            updateImage(true);
+            return;
         }
-        currentImage = redraw(newImage);
+
+        recalculateTransform(currentFrame);
+        redrawBase(adjustedImage);
+        redrawMarkers();
         newImageAvailable();
     }
 
+    /**
+     * Teilt mit, dass der Nutzer gerade interagiert (Scrollen, Verschieben, Abspielen). Bis zur nächsten
+     * Pause wird das Bild höchstens in der gegebenen Qualität gezeichnet; ist für die in den Einstellungen
+     * festgelegte Zeit keine weitere Interaktion erfolgt, wird es in voller Qualität verfeinert.
+     *
+     * @param quality die Qualität, die während der Interaktion höchstens verwendet werden soll
+     *
+     */
+    public void beginInteraction(RenderQuality quality) {
+        renderQuality = renderQuality.min(quality);
+        refineTimer.setInitialDelay(settings.getRefineDelay());
+        refineTimer.restart();
+    }
+
+    /**
+     * Erstellt eine Momentaufnahme des aktuellen Bildes in voller Auflösung, unabhängig davon, in welcher
+     * Auflösung es gerade angezeigt wird. Die Eckpunkte des fokussierten Markers werden nicht mitgezeichnet.
+     *
+     * @return die Momentaufnahme oder <code>null</code>, falls kein Bild geladen werden konnte
+     *
+     */
+    public BufferedImage createSnapshot() {
+        if (!workspace.isLoaded()) return null;
+
+        ImageFile imageFile = workspace.getCurrentImageFile();
+        DecodedFrame frame = workspace.getFrameCache().get(imageFile, DecodeTarget.FULL_RESOLUTION);
+        if (frame == null) frame = workspace.getFrameSource().openFrame(imageFile, DecodeTarget.FULL_RESOLUTION);
+        if (frame == null) return null;
+
+        // Die Momentaufnahme hat die Auflösung des dekodierten Bildes, nicht die des Bildbereichs
+        AffineTransform snapshotMarkerTransform = createMarkerTransform(frame.getSourceSize(), 1.0 / frame.getSubsampling());
+        AffineTransform snapshotImageTransform = createImageTransform(frame, snapshotMarkerTransform);
+        // Die Momentaufnahme wird weitergegeben und daher nicht in wiederverwendete Bilder gezeichnet
+        Dimension canvasSize = getSubsampledSize(frame);
+        BufferedImage adjusted = applyToneMapping(frame.getImage(), false);
+        BufferedImage snapshot = new BufferedImage(canvasSize.width, canvasSize.height, BufferedImage.TYPE_INT_ARGB);
+        drawBase(adjusted, snapshotImageTransform, snapshot, RenderQuality.HIGH);
+
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(snapshot.getGraphics());
+        g2d.transform(snapshotMarkerTransform);
+        drawMarkers(g2d);
+        g2d.dispose();
+        return snapshot;
+    }
+
     public void clear() {
-        currentImage = null;
-        cache = null;
+        frameDecoder.cancel();
+        refineTimer.stop();
+        renderQuality = RenderQuality.HIGH;
+        currentImageFile = null;
+        currentFrame = null;
+        adjustedImage = null;
+        adjustedOrientation = null;
+        baseLayer = null;
+        markerLayer = null;
+        dragPointLayer = null;
+        currentLayers = null;
+        markerBounds.clear();
+        toneMappedImage = null;
+        orientedImage = null;
     }
 
     /**
@@ -132,25 +341,156 @@ public class ImageEditor {
     //region Private Helfermethoden – für Bild-Updates
 
     /**
-     * Wendet alle transformationen an und zeichnet Marker auf das aktuelle Bild im Cache, nachdem dieser
-     * eventuell durch ein anderes <code>BufferedImage</code> ersetzt wurde.
+     * Fordert das Bild der aktuellen Position an (siehe {@link #updateImage}).
+     *
+     */
+    private void requestCurrentFrame() {
+        frameRequestPending = false;
+        if (!workspace.isLoaded()) return;
+
+        // Das Bild wird im Hintergrund dekodiert, bis dahin bleibt das bisherige Bild sichtbar
+        ImageFile imageFile = workspace.getCurrentImageFile();
+        DecodeTarget target = createDecodeTarget();
+        workspace.getFrameCache().setDecodeTarget(target);
+        frameDecoder.request(imageFile, target, frame -> applyDecodedFrame(imageFile, frame));
+    }
+
+    /**
+     * Übernimmt ein im Hintergrund dekodiertes Bild, wendet alle Bearbeitungen an und zeichnet es neu.
      *
-     * @param newBase ein neues Bild, falls vorhanden; Wenn <code>null</code>, wird der Cache verwendet.
-     * @return Das bearbeitete Bild.
+     * @param imageFile das Bild, welches angefordert wurde
+     * @param frame     das dekodierte Bild oder <code>null</code>, falls es nicht geladen werden konnte
      *
      */
-    private BufferedImage redraw(BufferedImage newBase) {
+    private void applyDecodedFrame(ImageFile imageFile, DecodedFrame frame) {
+        // Das Projekt wurde geschlossen, während das Bild dekodiert wurde
+        if (!workspace.isLoaded()) return;
+        if (frame == null) {
+            logger.error("Failed to load image: " + imageFile.getFilePath());
+            return;
+        }
 
-        if (newBase != null) {
-            updateBase(newBase);
+        // Das dekodierte Bild liegt im FrameCache und darf daher nicht direkt verändert werden
+        currentImageFile = imageFile;
+        currentFrame = frame;
+        BufferedImage source = frame.getImage();
+        adjustedImage = applyOrientation(applyToneMapping(source, true));
+        recalculateTransform(frame);
+        redrawBase(adjustedImage);
+        redrawMarkers();
+        newImageAvailable();
+    }
+
+    /**
+     * Zeichnet die Bildebene mit allen Transformationen neu.
+     *
+     * @param image das bearbeitete, aber noch nicht transformierte Bild
+     *
+     */
+    private void redrawBase(BufferedImage image) {
+        Dimension canvasSize = getCanvasSize(currentFrame);
+        baseLayer = drawBase(image, imageTransform, reuse(baseLayer, canvasSize.width, canvasSize.height), renderQuality);
+    }
+
+    /**
+     * Zeichnet das aktuelle Bild nach einer Interaktion in voller Qualität neu. Es wird nicht neu dekodiert.
+     *
+     */
+    private void refine() {
+        if (renderQuality == RenderQuality.HIGH) return;
+        renderQuality = RenderQuality.HIGH;
+        if (!workspace.isLoaded() || currentFrame == null || adjustedImage == null) return;
+
+        redrawBase(adjustedImage);
+        newImageAvailable();
+    }
+
+    /**
+     * Zeichnet die Ebene mit allen sichtbaren Markern und anschließend die Eckpunkte des fokussierten Markers neu.
+     *
+     */
+    private void redrawMarkers() {
+        markerLayer = reuse(markerLayer, baseLayer.getWidth(), baseLayer.getHeight());
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(markerLayer.getGraphics());
+        clear(g2d, markerLayer);
+        g2d.transform(markerTransform);
+        drawMarkers(g2d);
+        g2d.dispose();
+
+        markerBounds.clear();
+        for (Marker marker : workspace.getMarkers().getCurrentVisibleMarkers()) {
+            if (!marker.isHidden()) markerBounds.put(marker, measureMarker(marker));
         }
+        redrawDragPoints();
+    }
 
-        BufferedImage result = new BufferedImage(cache.getWidth(), cache.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(result.getGraphics());
-        g2d.drawImage(cache, 0, 0, null);
+    /**
+     * Zeichnet die Marker- und Eckpunktebene nur innerhalb des gegebenen Bereichs neu. Die Ebenen werden dabei
+     * direkt verändert, da sie nur auf dem Event-Dispatch-Thread gezeichnet werden.
+     *
+     * @param dirtyRegion der neu zu zeichnende Bereich in Pixeln der Zeichenfläche
+     *
+     */
+    private void redrawMarkers(Rectangle dirtyRegion) {
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(markerLayer.getGraphics());
+        g2d.clip(dirtyRegion);
+        clear(g2d, markerLayer);
+        g2d.transform(markerTransform);
+        drawMarkers(g2d);
+        g2d.dispose();
 
-        java.util.List<Marker> markers = workspace.getMarkers().getCurrentVisibleMarkers();
+        if (focusedMarker == null || dragPointLayer == null) {
+            redrawDragPoints();
+            return;
+        }
+        g2d = GraphicsUtils.createHighQualityGraphics2D(dragPointLayer.getGraphics());
+        g2d.clip(dirtyRegion);
+        clear(g2d, dragPointLayer);
+        g2d.transform(markerTransform);
+        focusedMarker.drawDragPoints(g2d);
+        g2d.dispose();
+    }
+
+    /**
+     * Zeichnet die Ebene mit den Eckpunkten des fokussierten Markers neu. Ist kein Marker fokussiert,
+     * entfällt diese Ebene.
+     *
+     */
+    private void redrawDragPoints() {
+        if (focusedMarker == null) {
+            dragPointLayer = null;
+            return;
+        }
+
+        dragPointLayer = reuse(dragPointLayer, baseLayer.getWidth(), baseLayer.getHeight());
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(dragPointLayer.getGraphics());
+        clear(g2d, dragPointLayer);
         g2d.transform(markerTransform);
+        focusedMarker.drawDragPoints(g2d);
+        g2d.dispose();
+    }
+
+    /**
+     * @return der Bereich der Zeichenfläche, den der Marker höchstens bemalt (siehe {@link Marker#getRepaintBounds}),
+     * erweitert um einen Pixel für die Kantenglättung
+     *
+     */
+    private Rectangle measureMarker(Marker marker) {
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(markerLayer.getGraphics());
+        Rectangle bounds = markerTransform.createTransformedShape(marker.getRepaintBounds(g2d)).getBounds();
+        g2d.dispose();
+        bounds.grow(1, 1);
+        return bounds;
+    }
+
+    /**
+     * Zeichnet alle sichtbaren Marker. Existiert der fokussierte Marker nicht mehr, wird er zurückgesetzt.
+     *
+     * @param g2d die Zeichenfläche, deren Transformation bereits Koordinaten der Originaldatei abbildet
+     *
+     */
+    private void drawMarkers(Graphics2D g2d) {
+        java.util.List<Marker> markers = workspace.getMarkers().getCurrentVisibleMarkers();
 
         boolean focusedMarkerStillExists = false;
         for (int i = markers.size() - 1; i >= 0; i--) { // Java Version 20 -> List#reverse unsupported
@@ -159,64 +499,186 @@ public class ImageEditor {
             marker.draw(g2d);
             focusedMarkerStillExists |= marker == focusedMarker;
         }
-        if (focusedMarker != null && focusedMarkerStillExists) {
-            // Wenn mehrere Marker überlappen, sollten die Eckpunkte in der obersten Ebene liegen
-            focusedMarker.drawDragPoints(g2d);
-        } else {
-            focusedMarker = null;
-        }
+        if (!focusedMarkerStillExists) focusedMarker = null;
+    }
+
+    /**
+     * Zeichnet das gegebene Bild mit allen Transformationen (Spiegeln, Drehen, Verschieben, Zoomen, Einpassen) in
+     * einem einzigen Durchgang auf eine Zeichenfläche. Wurde nur ein Ausschnitt dekodiert,
+     * bleibt der Rest der Zeichenfläche leer; er liegt ohnehin außerhalb des sichtbaren Bereichs.
+     *
+     * @param base    die Zeichenfläche (siehe {@link #getCanvasSize}); ihr bisheriger Inhalt wird verworfen
+     * @param quality die Qualität der Interpolation
+     *
+     */
+    private static BufferedImage drawBase(BufferedImage image, AffineTransform imageTransform, BufferedImage base, RenderQuality quality) {
+        Graphics2D g2d = quality.applyTo(GraphicsUtils.createHighQualityGraphics2D(base.getGraphics()));
+        clear(g2d, base);
+        g2d.transform(imageTransform);
+        g2d.drawImage(image, 0, 0, null);
         g2d.dispose();
-        return result;
+        return base;
+    }
+
+    /**
+     * Liefert das gegebene Bild zum erneuten Beschreiben zurück oder legt ein neues an, falls es fehlt oder sich die
+     * Größe geändert hat (z.B. bei geänderter Auflösung). Der Inhalt muss vom Aufrufer vollständig überschrieben werden.
+     *
+     * @param image  das bisherige Bild oder <code>null</code>
+     * @param width  die Breite
+     * @param height die Höhe
+     * @return ein Bild mit dem Typ {@link BufferedImage#TYPE_INT_ARGB} in der gegebenen Größe
+     *
+     */
+    private static BufferedImage reuse(BufferedImage image, int width, int height) {
+        if (image != null && image.getWidth() == width && image.getHeight() == height) return image;
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
 
+    private static void clear(Graphics2D g2d, BufferedImage image) {
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.setComposite(AlphaComposite.SrcOver);
     }
 
     /**
-     * Skaliert das gegebene Bild auf die Größe des Imagepanels und speichert es im Cache.
+     * @return Größe der Zeichenfläche, d.h. des auf den Bildbereich eingepassten Gesamtbildes in Gerätepixeln
      *
      */
-    private void updateBase(BufferedImage image) {
-        cache = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(cache.getGraphics());
+    private Dimension getCanvasSize(DecodedFrame frame) {
+        double scale = getCanvasScale(frame);
+        int canvasWidth = (int) Math.max(1, Math.round(frame.getSourceWidth() * scale));
+        int canvasHeight = (int) Math.max(1, Math.round(frame.getSourceHeight() * scale));
+        return new Dimension(canvasWidth, canvasHeight);
+    }
 
-        g2d.transform(imageTransform);
-        g2d.drawImage(image, drawArea.x, drawArea.y, drawArea.width, drawArea.height, null);
-        g2d.dispose();
+    /**
+     * Berechnet den Faktor von Pixeln der Originaldatei auf Pixel der Zeichenfläche. Die Zeichenfläche wird direkt
+     * in den Bildbereich eingepasst, damit das Bild nur ein einziges Mal skaliert wird. Solange die Größe des
+     * Bildbereichs unbekannt ist, entspricht ein Pixel der Zeichenfläche einem dekodierten Pixel.
+     *
+     */
+    private double getCanvasScale(DecodedFrame frame) {
+        if (viewportSize.width <= 0 || viewportSize.height <= 0) return 1.0 / frame.getSubsampling();
+        return Math.min((double) viewportSize.width / frame.getSourceWidth(),
+            (double) viewportSize.height / frame.getSourceHeight());
+    }
+
+    /**
+     * @return Größe des (ggf. unterabgetasteten) Gesamtbildes
+     *
+     */
+    private static Dimension getSubsampledSize(DecodedFrame frame) {
+        int subsampling = frame.getSubsampling();
+        int canvasWidth = (frame.getSourceWidth() + subsampling - 1) / subsampling;
+        int canvasHeight = (frame.getSourceHeight() + subsampling - 1) / subsampling;
+        return new Dimension(canvasWidth, canvasHeight);
+    }
+
+    /**
+     * Wendet Helligkeit und Kontrast auf das gegebene Bild an, ohne es zu verändern.
+     *
+     * @param source      das dekodierte Bild
+     * @param reuseBuffer ob das Ergebnis in {@link #toneMappedImage} geschrieben wird; sonst wird ein neues Bild angelegt
+     * @return das angepasste Bild oder das Quellbild selbst, falls keine Anpassung nötig ist
+     *
+     */
+    private BufferedImage applyToneMapping(BufferedImage source, boolean reuseBuffer) {
+        Config config = workspace.getConfig();
+        if (toneMapping == null || !toneMapping.matches(config.getBrightness(), config.getContrast())) {
+            toneMapping = ToneMapping.of(config.getBrightness(), config.getContrast());
+        }
+        if (toneMapping.isIdentity()) return source;
+
+        BufferedImage destination;
+        if (reuseBuffer) destination = toneMappedImage = reuse(toneMappedImage, source.getWidth(), source.getHeight());
+        else destination = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        return toneMapping.apply(source, destination);
+    }
+
+    /**
+     * Dreht bzw. spiegelt das gegebene Bild verlustfrei, falls die Rotation ein Vielfaches von 90° ist. Die
+     * verwendete Ausrichtung wird in {@link #adjustedOrientation} festgehalten und von
+     * {@link #recalculateTransform} aus der Bildtransformation herausgerechnet.
+     *
+     * @param image das Bild nach Helligkeit und Kontrast; es wird nicht verändert
+     * @return das ausgerichtete Bild oder das Bild selbst, falls keine Ausrichtung möglich oder nötig ist
+     *
+     */
+    private BufferedImage applyOrientation(BufferedImage image) {
+        Config config = workspace.getConfig();
+        Orientation orientation = Orientation.of(config.getRotation(), config.isMirrorX(), config.isMirrorY());
+        if (orientation == null || orientation.isIdentity()) {
+            adjustedOrientation = null;
+            return image;
+        }
+
+        adjustedOrientation = orientation;
+        Dimension size = orientation.getOrientedSize(image.getWidth(), image.getHeight());
+        orientedImage = reuse(orientedImage, size.width, size.height);
+        return orientation.apply(image, orientedImage);
     }
 
-    private RescaleOp calculateRescaleOp() {
-        float offset = 128 * ((workspace.getConfig().getBrightness() - 100) / 100f);
-        float scale = workspace.getConfig().getContrast() / 100f;
+    private DecodeTarget createDecodeTarget() {
+        if (!workspace.isLoaded()) return new DecodeTarget(viewportSize, 1);
+        double zoom = workspace.getConfig().getZoom() / 100.;
 
-        return new RescaleOp(scale, offset, null);
+        // Die Bildgröße ist erst nach dem ersten Dekodieren bekannt (alle Bilder eines Projekts sind gleich groß)
+        Dimension sourceSize = currentFrame != null ? currentFrame.getSourceSize() : null;
+        return new DecodeTarget(viewportSize, zoom, sourceSize == null ? null : calculateVisibleRegion(sourceSize));
     }
 
     /**
-     * Berechnet den Zeichenbereich für das gegebene Bild neu
+     * Berechnet, welcher Ausschnitt der Originaldatei nach allen Transformationen auf der Zeichenfläche landet.
+     *
+     * @return der sichtbare Ausschnitt oder <code>null</code>, falls das gesamte Bild sichtbar ist
      *
      */
-    private double recalculateZoom(BufferedImage source) {
+    private static Rectangle calculateVisibleRegion(Dimension sourceSize) {
+        Rectangle bounds = new Rectangle(sourceSize);
+        try {
+            AffineTransform canvasToSource = createMarkerTransform(sourceSize, 1).createInverse();
+            Rectangle visible = canvasToSource.createTransformedShape(bounds).getBounds().intersection(bounds);
+            return visible.equals(bounds) || visible.isEmpty() ? null : visible;
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+    }
 
-        double scale = (workspace.getConfig().getZoom()) / 100.;
-        drawArea.width = (int) (source.getWidth() * scale);
-        drawArea.height = (int) (source.getHeight() * scale);
-        drawArea.x = (source.getWidth() - drawArea.width) / 2;
-        drawArea.y = (source.getHeight() - drawArea.height) / 2;
-        return scale;
+    private void recalculateTransform(DecodedFrame frame) {
+        markerTransform = createMarkerTransform(frame.getSourceSize(), getCanvasScale(frame));
+        imageTransform = createImageTransform(frame, markerTransform);
+        if (adjustedOrientation != null) {
+            // Das Bild ist bereits ausgerichtet; übrig bleibt eine achsenparallele Transformation
+            BufferedImage decoded = frame.getImage();
+            imageTransform.concatenate(adjustedOrientation.createInverseTransform(decoded.getWidth(), decoded.getHeight()));
+        }
     }
 
-    private void recalculateTransform(BufferedImage image) {
+    /**
+     * Berechnet die Transformation von Koordinaten der Originaldatei auf die Zeichenfläche. Sie enthält alle
+     * Bearbeitungen (Spiegeln, Drehen, Verschieben, Zoomen) sowie die Einpassung in den Bildbereich, sodass
+     * dieselbe Transformation zum Zeichnen und (invertiert) für Mauskoordinaten verwendet werden kann.
+     *
+     * @param scale Faktor von Pixeln der Originaldatei auf Pixel der Zeichenfläche
+     *
+     */
+    private static AffineTransform createMarkerTransform(Dimension sourceSize, double scale) {
         Config config = workspace.getConfig();
 
-        int width = image.getWidth();
-        int height = image.getHeight();
-        int insetX = workspace.getConfig().getInsetX();
-        int insetY = workspace.getConfig().getInsetY();
+        int width = sourceSize.width;
+        int height = sourceSize.height;
+        int insetX = config.getInsetX();
+        int insetY = config.getInsetY();
         double radians = Math.toRadians(config.getRotation());
         boolean mirrorX = config.isMirrorX();
         boolean mirrorY = config.isMirrorY();
+        double zoom = config.getZoom() / 100.;
 
         AffineTransform at = new AffineTransform();
 
+        // Originaldatei -> Zeichenfläche
+        at.scale(scale, scale);
 
         // Mirror
         at.scale(mirrorX ? -1 : 1, mirrorY ? -1 : 1);
@@ -224,21 +686,38 @@ public class ImageEditor {
 
         // Rotate
         at.rotate(radians, width / 2.0, height / 2.0);
-        at.translate(drawArea.x - insetX, drawArea.y - insetY);
-
-        imageTransform = at;
-        markerTransform = new AffineTransform(at);
-
-
-        double scale = recalculateZoom(image);
-        markerTransform.scale(scale, scale);
+        at.translate(-insetX, -insetY);
 
+        // Zoom (um den Mittelpunkt)
+        at.translate((width - width * zoom) / 2, (height - height * zoom) / 2);
+        at.scale(zoom, zoom);
+        return at;
     }
 
+    private static AffineTransform createImageTransform(DecodedFrame frame, AffineTransform markerTransform) {
+        // Das dekodierte Bild beginnt an der Ecke des dekodierten Ausschnitts und ein dekodiertes Pixel
+        // entspricht subsampling × subsampling Pixeln der Originaldatei
+        Rectangle region = frame.getRegion();
+        AffineTransform at = new AffineTransform(markerTransform);
+        at.translate(region.x, region.y);
+        at.scale(frame.getSubsampling(), frame.getSubsampling());
+        return at;
+    }
 
     private void newImageAvailable() {
-        workspace.setCurrentImageSize(new Dimension(currentImage.getWidth(), currentImage.getHeight()));
-        if (newImageConsumer != null) newImageConsumer.accept(currentImage);
+        newImageAvailable(null);
+    }
+
+    /**
+     * @param dirtyRegion der Bereich, der sich gegenüber dem vorherigen Bild geändert hat, oder <code>null</code>,
+     *                    falls sich das gesamte Bild geändert hat
+     *
+     */
+    private void newImageAvailable(Rectangle dirtyRegion) {
+        // Marker-Koordinaten beziehen sich immer auf die Originaldatei
+        workspace.setCurrentImageSize(currentFrame.getSourceSize());
+        currentLayers = new ImageLayers(baseLayer, markerLayer, dragPointLayer, dirtyRegion, renderQuality);
+        if (newImageConsumer != null) newImageConsumer.accept(currentLayers);
     }
 
     //endregion
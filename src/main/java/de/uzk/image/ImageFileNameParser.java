@@ -0,0 +1,78 @@
+package de.uzk.image;
+
+import de.uzk.utils.StringUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Liest Zeit und Ebene aus Dateinamen der Form <code>&lt;timeSep&gt;&lt;Zeit&gt;&lt;levelSep&gt;&lt;Ebene&gt;.&lt;Endung&gt;</code>
+ * (z.B. <code>X0012L003.jpg</code>).
+ * <p>
+ * Das Muster wird einmalig kompiliert; Zeit und Ebene werden in einem Durchlauf direkt aus den Gruppen des
+ * Treffers gelesen, ohne Teilstrings zu erzeugen. Eine Instanz ist unveränderlich und kann von mehreren
+ * Threads gleichzeitig verwendet werden.
+ *
+ * @see Workspace
+ */
+public final class ImageFileNameParser {
+    /**
+     * Rückgabewert von {@link #parse}, falls der Dateiname nicht dem Muster entspricht.
+     */
+    public static final long NO_MATCH = -1;
+    private final Pattern pattern;
+
+    /**
+     * @param timeSep       das Trennzeichen vor der Zeit
+     * @param levelSep      das Trennzeichen vor der Ebene
+     * @param imageFileType der Dateityp, dessen Endungen akzeptiert werden
+     */
+    public ImageFileNameParser(String timeSep, String levelSep, ImageFileType imageFileType) {
+        String extensions = StringUtils.formatArray(imageFileType.getExtensions(), "|", '(', ')');
+        pattern = Pattern.compile(Pattern.quote(timeSep) + "(\\d+)" + Pattern.quote(levelSep) + "(\\d+)\\." + extensions,
+            Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * Prüft den Dateinamen und liest Zeit und Ebene aus. Zu große Zahlen werden auf {@link Integer#MAX_VALUE}
+     * begrenzt, damit sie bei der anschließenden Bereichsprüfung auffallen.
+     *
+     * @param fileName der Dateiname (ohne Verzeichnis)
+     * @return Zeit und Ebene, zusammengefasst mit {@link #pack}, oder {@link #NO_MATCH}
+     */
+    public long parse(CharSequence fileName) {
+        Matcher matcher = pattern.matcher(fileName);
+        if (!matcher.matches()) return NO_MATCH;
+
+        int time = parseDigits(fileName, matcher.start(1), matcher.end(1));
+        int level = parseDigits(fileName, matcher.start(2), matcher.end(2));
+        return pack(time, level);
+    }
+
+    /**
+     * Fasst Zeit und Ebene so zu einem Schlüssel zusammen, dass die natürliche Ordnung der Schlüssel der
+     * Ordnung nach Zeit, dann Ebene entspricht.
+     */
+    public static long pack(int time, int level) {
+        return (long) time << 32 | level;
+    }
+
+    public static int unpackTime(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int unpackLevel(long key) {
+        return (int) key;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private static int parseDigits(CharSequence text, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end && value <= Integer.MAX_VALUE; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return (int) Math.min(value, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,76 @@
+package de.uzk.image;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Die Ebenen des aktuell dargestellten Bildes, die erst beim Zeichnen übereinandergelegt werden:
+ * <ol>
+ *     <li>das transformierte Bild (ändert sich nur beim Bildwechsel oder bei Bearbeitungen),</li>
+ *     <li>alle sichtbaren Marker,</li>
+ *     <li>die Eckpunkte des fokussierten Markers (optional).</li>
+ * </ol>
+ * Alle Ebenen haben dieselbe Größe. Dadurch muss beim Ändern eines Markers nicht das gesamte Bild neu
+ * erstellt werden. Optional wird mitgeteilt, welcher Bereich sich gegenüber dem vorherigen Bild geändert hat,
+ * damit auch nur dieser Bereich neu gezeichnet werden muss, und in welcher {@link RenderQuality} die Ebenen
+ * skaliert werden sollen.
+ *
+ * @see ImageEditor
+ * @see de.uzk.gui.SensitiveImagePanel
+ */
+public final class ImageLayers {
+    private final BufferedImage base;
+    private final BufferedImage markers;
+    private final BufferedImage dragPoints;
+    private final Rectangle dirtyRegion;
+    private final RenderQuality quality;
+
+    public ImageLayers(BufferedImage base, BufferedImage markers, BufferedImage dragPoints) {
+        this(base, markers, dragPoints, null, RenderQuality.HIGH);
+    }
+
+    public ImageLayers(BufferedImage base, BufferedImage markers, BufferedImage dragPoints, Rectangle dirtyRegion,
+                       RenderQuality quality) {
+        if (base == null || markers == null) throw new NullPointerException("Base and markers must not be null.");
+        if (quality == null) throw new NullPointerException("Quality must not be null.");
+        this.quality = quality;
+        this.base = base;
+        this.markers = markers;
+        this.dragPoints = dragPoints;
+        this.dirtyRegion = dirtyRegion == null ? null : new Rectangle(dirtyRegion);
+    }
+
+    public BufferedImage getBase() {
+        return base;
+    }
+
+    public BufferedImage getMarkers() {
+        return markers;
+    }
+
+    /**
+     * @return die Eckpunkte des fokussierten Markers oder <code>null</code>, falls kein Marker fokussiert ist
+     */
+    public BufferedImage getDragPoints() {
+        return dragPoints;
+    }
+
+    /**
+     * @return der geänderte Bereich in Pixeln der Ebenen oder <code>null</code>, falls sich alles geändert hat
+     */
+    public Rectangle getDirtyRegion() {
+        return dirtyRegion == null ? null : new Rectangle(dirtyRegion);
+    }
+
+    public RenderQuality getQuality() {
+        return quality;
+    }
+
+    public int getWidth() {
+        return base.getWidth();
+    }
+
+    public int getHeight() {
+        return base.getHeight();
+    }
+}
@@ -0,0 +1,203 @@
+package de.uzk.image;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Dreht ein Bild um Vielfache von 90° und spiegelt es, indem die Pixel nur umsortiert werden. Das ist verlustfrei
+ * und deutlich schneller als eine allgemeine Rotation mit Interpolation; die verbleibende Transformation (Zoomen,
+ * Verschieben, Einpassen) ist danach achsenparallel.
+ * <p>
+ * Eine Instanz ist unveränderlich und kann so lange wiederverwendet werden, bis sich die Einstellungen ändern
+ * (siehe {@link #matches}). Große Bilder werden in Streifen aus Zeilen zerlegt und parallel bearbeitet.
+ *
+ * @see ImageEditor
+ */
+public final class Orientation {
+    // Unterhalb dieser Anzahl an Pixeln wird ein Streifen nicht weiter aufgeteilt
+    private static final int MIN_STRIP_PIXELS = 1 << 16;
+    private final int rotation;
+    private final boolean mirrorX;
+    private final boolean mirrorY;
+
+    private Orientation(int rotation, boolean mirrorX, boolean mirrorY) {
+        this.rotation = rotation;
+        this.mirrorX = mirrorX;
+        this.mirrorY = mirrorY;
+    }
+
+    /**
+     * @param rotation die Rotation in Grad (im Uhrzeigersinn)
+     * @param mirrorX  horizontal spiegeln
+     * @param mirrorY  vertikal spiegeln
+     * @return die Ausrichtung oder <code>null</code>, falls die Rotation kein Vielfaches von 90° ist
+     */
+    public static Orientation of(int rotation, boolean mirrorX, boolean mirrorY) {
+        if (rotation % 90 != 0) return null;
+        return new Orientation(rotation, mirrorX, mirrorY);
+    }
+
+    /**
+     * @return ob diese Ausrichtung für die gegebenen Einstellungen erstellt wurde
+     */
+    public boolean matches(int rotation, boolean mirrorX, boolean mirrorY) {
+        return this.rotation == rotation && this.mirrorX == mirrorX && this.mirrorY == mirrorY;
+    }
+
+    /**
+     * @return ob die Ausrichtung keinen Pixel verschiebt
+     */
+    public boolean isIdentity() {
+        return getQuarterTurns() == 0 && !mirrorX && !mirrorY;
+    }
+
+    /**
+     * @return die Größe des ausgerichteten Bildes
+     */
+    public Dimension getOrientedSize(int width, int height) {
+        return getQuarterTurns() % 2 == 0 ? new Dimension(width, height) : new Dimension(height, width);
+    }
+
+    /**
+     * Berechnet die Transformation von Pixelkoordinaten des Quellbildes auf Pixelkoordinaten des ausgerichteten
+     * Bildes. Sie spiegelt und dreht in derselben Reihenfolge wie die Transformationen des {@link ImageEditor}s.
+     *
+     * @param width  die Breite des Quellbildes
+     * @param height die Höhe des Quellbildes
+     * @return die Transformation
+     */
+    public AffineTransform createTransform(int width, int height) {
+        AffineTransform orientation = new AffineTransform();
+        orientation.scale(mirrorX ? -1 : 1, mirrorY ? -1 : 1);
+        orientation.quadrantRotate(getQuarterTurns());
+
+        // Das ausgerichtete Bild beginnt wieder bei (0, 0)
+        Rectangle2D bounds = orientation.createTransformedShape(new Rectangle(width, height)).getBounds2D();
+        AffineTransform at = AffineTransform.getTranslateInstance(-bounds.getX(), -bounds.getY());
+        at.concatenate(orientation);
+        return at;
+    }
+
+    /**
+     * @return die Umkehrung von {@link #createTransform}, d.h. ausgerichtetes Bild -> Quellbild
+     */
+    public AffineTransform createInverseTransform(int width, int height) {
+        try {
+            return createTransform(width, height).createInverse();
+        } catch (NoninvertibleTransformException e) {
+            throw new IllegalStateException("Mirroring and quarter turns are always invertible.", e);
+        }
+    }
+
+    /**
+     * Richtet ein Bild aus. Das Quellbild wird nicht verändert.
+     *
+     * @param source      das Quellbild
+     * @param destination ein Bild vom Typ {@link BufferedImage#TYPE_INT_ARGB} in der Größe von {@link #getOrientedSize}
+     * @return das Zielbild
+     */
+    public BufferedImage apply(BufferedImage source, BufferedImage destination) {
+        if (destination.getType() != BufferedImage.TYPE_INT_ARGB) {
+            throw new IllegalArgumentException("The destination must be of the type TYPE_INT_ARGB.");
+        }
+        if (!getOrientedSize(source.getWidth(), source.getHeight()).equals(
+            new Dimension(destination.getWidth(), destination.getHeight()))) {
+            throw new IllegalArgumentException("The destination must have the oriented size of the source.");
+        }
+
+        AffineTransform inverse = createInverseTransform(source.getWidth(), source.getHeight());
+        if (!isPackedRGB(source)) {
+            // Andere Formate werden ohne Interpolation gezeichnet, was bei Vielfachen von 90° ebenfalls verlustfrei ist
+            Graphics2D g2d = destination.createGraphics();
+            g2d.setComposite(AlphaComposite.Src);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.drawImage(source, createTransform(source.getWidth(), source.getHeight()), null);
+            g2d.dispose();
+            return destination;
+        }
+
+        int[] output = ((DataBufferInt) destination.getRaster().getDataBuffer()).getData();
+        ForkJoinPool.commonPool().invoke(new StripTask(source, inverse, output, destination.getWidth(), 0, destination.getHeight()));
+        return destination;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private int getQuarterTurns() {
+        return Math.floorMod(rotation / 90, 4);
+    }
+
+    private static void orientRows(BufferedImage source, AffineTransform inverse, int[] output, int outputWidth,
+                                   int fromRow, int toRow) {
+        WritableRaster raster = source.getRaster();
+        int[] input = ((DataBufferInt) raster.getDataBuffer()).getData();
+        int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+        int offset = raster.getDataBuffer().getOffset()
+            - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+        int alpha = source.getColorModel().hasAlpha() ? 0 : 0xFF000000;
+
+        // Die Umkehrung besteht nur aus 0 und ±1, ein Schritt im Ziel ist also ein fester Schritt in der Quelle
+        int stepX = (int) inverse.getScaleX();
+        int stepY = (int) inverse.getShearY();
+        int step = stepY * stride + stepX;
+        double[] start = new double[2];
+        for (int y = fromRow; y < toRow; y++) {
+            start[0] = 0.5;
+            start[1] = y + 0.5;
+            inverse.transform(start, 0, start, 0, 1);
+            int index = offset + (int) Math.floor(start[1]) * stride + (int) Math.floor(start[0]);
+            int outputIndex = y * outputWidth;
+            for (int x = 0; x < outputWidth; x++, index += step) {
+                output[outputIndex + x] = input[index] | alpha;
+            }
+        }
+    }
+
+    private static boolean isPackedRGB(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_RGB) return false;
+        WritableRaster raster = image.getRaster();
+        return raster.getDataBuffer() instanceof DataBufferInt && raster.getDataBuffer().getNumBanks() == 1
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel;
+    }
+
+    /**
+     * Bearbeitet einen Streifen aus Zeilen des Zielbildes und teilt ihn auf, solange er groß genug ist.
+     */
+    private static final class StripTask extends RecursiveAction {
+        private final BufferedImage source;
+        private final AffineTransform inverse;
+        private final int[] output;
+        private final int outputWidth;
+        private final int fromRow;
+        private final int toRow;
+
+        private StripTask(BufferedImage source, AffineTransform inverse, int[] output, int outputWidth, int fromRow, int toRow) {
+            this.source = source;
+            this.inverse = inverse;
+            this.output = output;
+            this.outputWidth = outputWidth;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = toRow - fromRow;
+            if (rows < 2 || (long) rows * outputWidth <= MIN_STRIP_PIXELS) {
+                orientRows(source, inverse, output, outputWidth, fromRow, toRow);
+                return;
+            }
+
+            int middleRow = fromRow + rows / 2;
+            invokeAll(new StripTask(source, inverse, output, outputWidth, fromRow, middleRow),
+                new StripTask(source, inverse, output, outputWidth, middleRow, toRow));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package de.uzk.image;
+
+import de.uzk.action.ActionType;
+import de.uzk.gui.Gui;
+import de.uzk.gui.observer.HandleActionListener;
+import de.uzk.gui.observer.ToggleListener;
+import de.uzk.gui.observer.UpdateImageListener;
+import de.uzk.io.FrameSource;
+
+import java.util.*;
+import java.util.concurrent.Future;
+
+import static de.uzk.Main.workspace;
+
+/**
+ * Hält die Bilder der angehefteten Zeitpunkte (siehe {@link Workspace#getPinTimes()}) in der aktuellen Ebene
+ * dekodiert im {@link FrameCache} bereit, damit zwischen ihnen ohne Wartezeit gewechselt werden kann.
+ * <p>
+ * Die Bilder werden im Cache angeheftet und nach jedem Ebenenwechsel oder (Ab-)Heften eines Zeitpunkts neu
+ * bestimmt. Passen nicht alle in den Cache, werden die dem aktuellen Zeitpunkt nächstgelegenen bevorzugt.
+ * <p>
+ * Alle Methoden müssen auf dem Event-Dispatch-Thread aufgerufen werden.
+ */
+public class PinnedFrames implements HandleActionListener, ToggleListener, UpdateImageListener {
+    // Anteil des Cache-Budgets, den die angehefteten Bilder höchstens belegen
+    private static final double MAX_CACHE_SHARE = 0.5;
+    private final FrameCache frameCache;
+    private final FrameSource frameSource;
+    private final Map<ImageFile, Future<?>> pending = new HashMap<>();
+    private List<ImageFile> pinned = List.of();
+
+    public PinnedFrames(FrameCache frameCache, FrameSource frameSource) {
+        this.frameCache = frameCache;
+        this.frameSource = frameSource;
+    }
+
+    /**
+     * Registriert die Beobachter an der Gui. Muss nach jedem Neuaufbau der Gui erneut aufgerufen werden, da dabei
+     * alle Beobachter entfernt werden.
+     *
+     * @param gui die Gui
+     */
+    public void registerListeners(Gui gui) {
+        gui.registerHandleActionListener(this);
+        gui.registerToggleListener(this);
+        gui.registerUpdateImageListener(this);
+    }
+
+    @Override
+    public void handleAction(ActionType actionType) {
+        if (actionType == ActionType.SHORTCUT_PIN_TIME) refresh();
+    }
+
+    @Override
+    public void toggleOn() {
+        refresh();
+    }
+
+    @Override
+    public void toggleOff() {
+        release();
+    }
+
+    @Override
+    public void update(Axis axis) {
+        // Beim Wechsel des Zeitpunkts bleiben die angehefteten Bilder dieselben
+        if (axis == Axis.LEVEL) refresh();
+    }
+
+    /**
+     * Bricht alle Anfragen ab und hebt alle Anheftungen auf.
+     */
+    public void release() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+        frameCache.unpin(pinned);
+        pinned = List.of();
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private void refresh() {
+        if (!workspace.isLoaded()) {
+            release();
+            return;
+        }
+
+        DecodeTarget target = frameCache.getDecodeTarget();
+        List<ImageFile> frames = selectFrames(target);
+        if (!frames.equals(pinned)) {
+            frameCache.unpin(pinned);
+            frameCache.pin(frames);
+            pinned = frames;
+        }
+
+        // Anfragen für Bilder, die nicht mehr angeheftet sind, abbrechen
+        pending.entrySet().removeIf(entry -> {
+            boolean obsolete = entry.getValue().isDone() || !frames.contains(entry.getKey());
+            if (obsolete) entry.getValue().cancel(false);
+            return obsolete;
+        });
+
+        for (ImageFile imageFile : frames) {
+            if (pending.containsKey(imageFile) || frameCache.contains(imageFile, target)) continue;
+            pending.put(imageFile, frameSource.decodeInBackground(imageFile, target, frameCache));
+        }
+    }
+
+    /**
+     * Bestimmt die Bilder der angehefteten Zeitpunkte in der aktuellen Ebene, begrenzt auf einen Teil des
+     * Cache-Budgets. Die dem aktuellen Zeitpunkt nächstgelegenen werden bevorzugt.
+     */
+    private List<ImageFile> selectFrames(DecodeTarget target) {
+        int[] pinTimes = workspace.getPinTimes();
+        int time = workspace.getTime();
+        int level = workspace.getLevel();
+
+        int maxFrames = pinTimes.length;
+        DecodedFrame current = frameCache.get(workspace.getCurrentImageFile(), target);
+        if (current != null) {
+            long frameBytes = Math.max(1, FrameCache.sizeOf(current.getImage()));
+            maxFrames = (int) Math.min(maxFrames, (long) (frameCache.getMaxBytes() * MAX_CACHE_SHARE / frameBytes));
+        }
+
+        // Ausgehend vom aktuellen Zeitpunkt abwechselnd nach links und rechts die nächsten Zeitpunkte wählen
+        List<ImageFile> frames = new ArrayList<>(maxFrames);
+        int right = Arrays.binarySearch(pinTimes, time);
+        if (right < 0) right = -right - 1;
+        int left = right - 1;
+        while (frames.size() < maxFrames && (left >= 0 || right < pinTimes.length)) {
+            boolean takeRight = left < 0 || (right < pinTimes.length && pinTimes[right] - time <= time - pinTimes[left]);
+            ImageFile imageFile = workspace.getImageFile(takeRight ? pinTimes[right++] : pinTimes[left--], level);
+            if (imageFile != null) frames.add(imageFile);
+        }
+        return frames;
+    }
+}
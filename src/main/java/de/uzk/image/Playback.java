@@ -0,0 +1,444 @@
+package de.uzk.image;
+
+import de.uzk.gui.Gui;
+import de.uzk.io.FrameSource;
+
+import javax.swing.Timer;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static de.uzk.Main.workspace;
+
+/**
+ * Spielt die Bilder entlang einer {@link Axis} als Film ab: entlang der Zeit (Cine-Modus) oder durch die Ebenen
+ * eines festen Zeitpunkts. Am Ende der Achse wird je nach {@link PlaybackMode} von vorne begonnen oder die
+ * Richtung umgekehrt.
+ * <p>
+ * Die Position ergibt sich aus einer Uhr: Zu jedem Zeitpunkt steht fest, welches Bild bei der gewünschten
+ * Bildrate gezeigt werden müsste. Angezeigt wird stets das neueste fällige Bild, das bereits dekodiert im
+ * {@link FrameCache} liegt. Kommt die Dekodierung nicht hinterher, werden Bilder übersprungen, statt die
+ * Wiedergabe zu verlangsamen. Die nächsten Bilder werden in einem begrenzten Fenster im Voraus dekodiert.
+ * <p>
+ * Beim Durchlaufen der Ebenen wird derselbe Stapel immer wieder gezeigt. Passt er in den Cache, wird er dort
+ * angeheftet, sodass ab dem zweiten Durchlauf nichts mehr dekodiert werden muss.
+ * <p>
+ * Entlang der Zeitachse können auch nur die angehefteten Zeitpunkte (siehe {@link Workspace#getPinTimes()})
+ * nacheinander abgespielt werden.
+ * <p>
+ * Alle Methoden müssen auf dem Event-Dispatch-Thread aufgerufen werden.
+ *
+ * @see FramePrefetcher
+ */
+public class Playback {
+    public static final int MIN_FPS = 1;
+    public static final int MAX_FPS = 60;
+    public static final int DEFAULT_FPS = 10;
+    // Anzahl der Bilder, die höchstens im Voraus dekodiert werden
+    private static final int MAX_FRAMES_AHEAD = 16;
+    // Anteil des Cache-Budgets, den die vorausdekodierten Bilder höchstens belegen
+    private static final double MAX_CACHE_SHARE = 0.5;
+    // Anteil des Cache-Budgets, den ein angehefteter Ebenenstapel höchstens belegt
+    private static final double MAX_PINNED_SHARE = 0.75;
+    // Zeitraum, über den die erreichte Bildrate gemessen wird
+    private static final long FPS_WINDOW_NANOS = 1_000_000_000L;
+    private final Gui gui;
+    private final FrameCache frameCache;
+    private final FrameSource frameSource;
+    private final FramePrefetcher framePrefetcher;
+    private final Timer timer;
+    private final Map<ImageFile, Future<Boolean>> pending = new HashMap<>();
+    // Bilder, die nicht geladen werden konnten; sie werden bis zum nächsten Start nicht erneut angefordert
+    private final Set<ImageFile> failedFrames = new HashSet<>();
+    private final Deque<Long> presentations = new ArrayDeque<>();
+    private Runnable statusListener;
+    // Einstellungen
+    private Axis axis = Axis.TIME;
+    private PlaybackMode mode = PlaybackMode.LOOP;
+    private int framesPerSecond = DEFAULT_FPS;
+    private boolean realTime;
+    private boolean pinnedTimesOnly;
+    // Zustand der laufenden Wiedergabe
+    private long startNanos;
+    private int startIndex;
+    // Die abgespielten Zeitpunkte, falls nur die angehefteten abgespielt werden; sonst null
+    private int[] sequence;
+    private long presentedStep;
+    private ImageFile presentedImageFile;
+    private int droppedFrames;
+    private List<ImageFile> pinnedStack = List.of();
+
+    public Playback(Gui gui, FrameCache frameCache, FrameSource frameSource, FramePrefetcher framePrefetcher) {
+        this.gui = gui;
+        this.frameCache = frameCache;
+        this.frameSource = frameSource;
+        this.framePrefetcher = framePrefetcher;
+        this.timer = new Timer(0, e -> tick());
+    }
+
+    // ========================================
+    // Steuerung
+    // ========================================
+    public void start() {
+        if (isPlaying() || !workspace.isLoaded()) return;
+        updateSequence();
+        if (getPositionCount() < 2) return;
+
+        droppedFrames = 0;
+        presentations.clear();
+        failedFrames.clear();
+        // Die beim Scrollen vorausgeladenen Bilder werden nicht mehr benötigt und würden nur die Dekodierer belegen
+        framePrefetcher.cancel();
+        restartClock();
+        timer.setDelay(getTickDelay());
+        timer.start();
+        notifyStatusChanged();
+    }
+
+    public void stop() {
+        if (!isPlaying()) return;
+
+        timer.stop();
+        cancelPending();
+        unpinStack();
+        presentations.clear();
+        notifyStatusChanged();
+    }
+
+    public void toggle() {
+        if (isPlaying()) stop();
+        else start();
+    }
+
+    public boolean isPlaying() {
+        return timer.isRunning();
+    }
+
+    /**
+     * Legt einen Beobachter fest, der aufgerufen wird, sobald sich der Zustand oder die erreichte Bildrate ändert.
+     *
+     * @param statusListener der Beobachter; kann null sein
+     */
+    public void onStatusChanged(Runnable statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    // ========================================
+    // Einstellungen
+    // ========================================
+    public Axis getAxis() {
+        return axis;
+    }
+
+    public boolean setAxis(Axis axis) {
+        if (axis == null || this.axis == axis) return false;
+        this.axis = axis;
+        cancelPending();
+        unpinStack();
+        retime();
+        return true;
+    }
+
+    public PlaybackMode getMode() {
+        return mode;
+    }
+
+    public boolean setMode(PlaybackMode mode) {
+        if (mode == null || this.mode == mode) return false;
+        this.mode = mode;
+        retime();
+        return true;
+    }
+
+    public int getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public boolean setFramesPerSecond(int framesPerSecond) {
+        if (framesPerSecond < MIN_FPS || framesPerSecond > MAX_FPS || this.framesPerSecond == framesPerSecond) return false;
+        this.framesPerSecond = framesPerSecond;
+        retime();
+        return true;
+    }
+
+    public boolean isRealTime() {
+        return realTime;
+    }
+
+    /**
+     * @param realTime ob die Zeitachse in Echtzeit abgespielt wird, d.h. mit einem Bild pro Zeiteinheit des
+     *                 Projekts (siehe {@link de.uzk.config.Config#getTimeUnit()}) statt mit der festen Bildrate
+     */
+    public boolean setRealTime(boolean realTime) {
+        if (this.realTime == realTime) return false;
+        this.realTime = realTime;
+        retime();
+        return true;
+    }
+
+    public boolean isPinnedTimesOnly() {
+        return pinnedTimesOnly;
+    }
+
+    /**
+     * @param pinnedTimesOnly ob entlang der Zeitachse nur die angehefteten Zeitpunkte abgespielt werden
+     */
+    public boolean setPinnedTimesOnly(boolean pinnedTimesOnly) {
+        if (this.pinnedTimesOnly == pinnedTimesOnly) return false;
+        this.pinnedTimesOnly = pinnedTimesOnly;
+        cancelPending();
+        retime();
+        return true;
+    }
+
+    // ========================================
+    // Statistik
+    // ========================================
+
+    /**
+     * @return die Anzahl der in der letzten Sekunde angezeigten Bilder
+     */
+    public int getAchievedFps() {
+        discardOldPresentations(System.nanoTime());
+        return presentations.size();
+    }
+
+    /**
+     * @return die Anzahl der seit dem Start übersprungenen Bilder
+     */
+    public int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private void tick() {
+        if (!workspace.isLoaded()) {
+            stop();
+            return;
+        }
+
+        // Der Nutzer hat währenddessen selbst navigiert oder Zeitpunkte (ab-)geheftet: Von dort aus weiterspielen
+        if (updateSequence() || workspace.getCurrentImageFile() != presentedImageFile) restartClock();
+        if (getPositionCount() < 2) {
+            stop();
+            return;
+        }
+
+        long now = System.nanoTime();
+        long dueStep = (long) ((now - startNanos) / 1e9 * getEffectiveFps());
+        DecodeTarget target = frameCache.getDecodeTarget();
+        updatePinnedStack(target);
+
+        // Das neueste fällige Bild suchen, das bereits dekodiert vorliegt
+        for (long step = dueStep; step > presentedStep; step--) {
+            if (frameCache.contains(frameAt(step), target)) {
+                droppedFrames += (int) (step - presentedStep - 1);
+                present(step, now);
+                break;
+            }
+        }
+
+        decodeAhead(dueStep, target);
+        discardOldPresentations(now);
+        notifyStatusChanged();
+    }
+
+    private void present(long step, long now) {
+        presentedStep = step;
+        presentations.addLast(now);
+
+        switch (axis) {
+            case TIME -> workspace.setTime(coordinateAt(step));
+            case LEVEL -> workspace.setLevel(coordinateAt(step));
+        }
+        presentedImageFile = workspace.getCurrentImageFile();
+        gui.update(axis);
+    }
+
+    private void decodeAhead(long dueStep, DecodeTarget target) {
+        // Das Fenster beginnt beim fälligen Bild und umfasst nie mehr Bilder, als es Positionen gibt.
+        // Ein angehefteter Stapel passt vollständig in den Cache und wird daher ganz dekodiert.
+        int positions = getPositionCount();
+        int framesAhead = pinnedStack.isEmpty() ? Math.min(getMaxFramesAhead(target), positions) : positions;
+        List<ImageFile> frames = new ArrayList<>(framesAhead);
+        for (int i = 0; i < framesAhead; i++) {
+            ImageFile imageFile = frameAt(dueStep + i);
+            if (imageFile != null && !frames.contains(imageFile)) frames.add(imageFile);
+        }
+
+        // Bilder, die hinter der Wiedergabe zurückgefallen sind, werden nicht mehr benötigt
+        Iterator<Map.Entry<ImageFile, Future<Boolean>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ImageFile, Future<Boolean>> entry = iterator.next();
+            if (entry.getValue().isDone()) {
+                if (hasFailed(entry.getValue())) failedFrames.add(entry.getKey());
+                iterator.remove();
+            } else if (!frames.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                iterator.remove();
+            }
+        }
+
+        for (ImageFile imageFile : frames) {
+            if (pending.containsKey(imageFile) || failedFrames.contains(imageFile) || frameCache.contains(imageFile, target)) continue;
+            pending.put(imageFile, frameSource.decodeInBackground(imageFile, target, frameCache));
+        }
+    }
+
+    private static boolean hasFailed(Future<Boolean> future) {
+        if (future.isCancelled()) return false;
+        try {
+            return !future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Begrenzt das Fenster so, dass die vorausdekodierten Bilder nur einen Teil des Cache-Budgets belegen und
+     * sich nicht gegenseitig verdrängen.
+     */
+    private int getMaxFramesAhead(DecodeTarget target) {
+        long frameBytes = getFrameBytes(target);
+        if (frameBytes == 0) return MAX_FRAMES_AHEAD;
+
+        long budgetFrames = (long) (frameCache.getMaxBytes() * MAX_CACHE_SHARE / frameBytes);
+        return (int) Math.max(1, Math.min(MAX_FRAMES_AHEAD, budgetFrames));
+    }
+
+    /**
+     * Heftet beim Durchlaufen der Ebenen den Stapel des aktuellen Zeitpunkts im Cache an, sofern er hineinpasst.
+     */
+    private void updatePinnedStack(DecodeTarget target) {
+        if (axis != Axis.LEVEL) return;
+
+        int time = workspace.getTime();
+        if (!pinnedStack.isEmpty() && pinnedStack.get(0).getTime() == time) return;
+        unpinStack();
+
+        long frameBytes = getFrameBytes(target);
+        int levels = workspace.getMaxLevel() + 1;
+        if (frameBytes == 0 || frameBytes * levels > frameCache.getMaxBytes() * MAX_PINNED_SHARE) return;
+
+        List<ImageFile> stack = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            ImageFile imageFile = workspace.getImageFile(time, level);
+            if (imageFile != null) stack.add(imageFile);
+        }
+        frameCache.pin(stack);
+        pinnedStack = stack;
+    }
+
+    private void unpinStack() {
+        frameCache.unpin(pinnedStack);
+        pinnedStack = List.of();
+    }
+
+    /**
+     * @return der geschätzte Speicherbedarf eines Bildes anhand des aktuellen Bildes oder <code>0</code>, falls
+     * dieses noch nicht dekodiert vorliegt
+     */
+    private long getFrameBytes(DecodeTarget target) {
+        DecodedFrame current = frameCache.get(workspace.getCurrentImageFile(), target);
+        return current == null ? 0 : Math.max(1, FrameCache.sizeOf(current.getImage()));
+    }
+
+    private ImageFile frameAt(long step) {
+        int coordinate = coordinateAt(step);
+        return switch (axis) {
+            case TIME -> workspace.getImageFile(coordinate, workspace.getLevel());
+            case LEVEL -> workspace.getImageFile(workspace.getTime(), coordinate);
+        };
+    }
+
+    /**
+     * @return der Zeitpunkt bzw. die Ebene, die im gegebenen Schritt gezeigt wird
+     */
+    private int coordinateAt(long step) {
+        int index = indexAt(step);
+        return sequence != null ? sequence[index] : index;
+    }
+
+    private int indexAt(long step) {
+        long positions = getPositionCount();
+        if (mode == PlaybackMode.LOOP || positions == 1) return (int) Math.floorMod(startIndex + step, positions);
+
+        // Hin und her: Eine Periode läuft einmal vorwärts und einmal rückwärts, ohne die Enden doppelt zu zeigen
+        long period = 2 * (positions - 1);
+        long phase = Math.floorMod(startIndex + step, period);
+        return (int) (phase < positions ? phase : period - phase);
+    }
+
+    private int getCurrentIndex() {
+        int coordinate = axis == Axis.TIME ? workspace.getTime() : workspace.getLevel();
+        if (sequence == null) return coordinate;
+
+        // Liegt der aktuelle Zeitpunkt nicht in der Folge, wird mit dem nächsten angehefteten fortgesetzt
+        int index = Arrays.binarySearch(sequence, coordinate);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int getPositionCount() {
+        if (sequence != null) return sequence.length;
+        return (axis == Axis.TIME ? workspace.getMaxTime() : workspace.getMaxLevel()) + 1;
+    }
+
+    /**
+     * @return ob sich die abgespielten Zeitpunkte geändert haben
+     */
+    private boolean updateSequence() {
+        int[] newSequence = pinnedTimesOnly && axis == Axis.TIME ? workspace.getPinTimes() : null;
+        if (Arrays.equals(sequence, newSequence)) return false;
+        sequence = newSequence;
+        return true;
+    }
+
+    private double getEffectiveFps() {
+        // Echtzeit gibt es nur, wenn alle Zeitpunkte im gleichen Abstand abgespielt werden
+        if (!realTime || axis != Axis.TIME || sequence != null || !workspace.isLoaded()) return framesPerSecond;
+        return 1.0 / workspace.getConfig().getTimeUnit();
+    }
+
+    private int getTickDelay() {
+        // Etwa doppelt so oft prüfen, wie Bilder fällig werden, aber nicht seltener als zehnmal pro Sekunde
+        int delay = (int) (500 / getEffectiveFps());
+        return Math.max(5, Math.min(100, delay));
+    }
+
+    private void restartClock() {
+        startNanos = System.nanoTime();
+        startIndex = getCurrentIndex();
+        presentedStep = 0;
+        presentedImageFile = workspace.getCurrentImageFile();
+    }
+
+    private void retime() {
+        if (!isPlaying()) return;
+
+        // Die Uhr an der aktuellen Position mit der neuen Bildrate fortsetzen
+        updateSequence();
+        restartClock();
+        timer.setDelay(getTickDelay());
+        notifyStatusChanged();
+    }
+
+    private void discardOldPresentations(long now) {
+        while (!presentations.isEmpty() && now - presentations.peekFirst() > FPS_WINDOW_NANOS) {
+            presentations.removeFirst();
+        }
+    }
+
+    private void cancelPending() {
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+
+    private void notifyStatusChanged() {
+        if (statusListener != null) statusListener.run();
+    }
+}
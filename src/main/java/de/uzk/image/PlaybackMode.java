@@ -0,0 +1,25 @@
+package de.uzk.image;
+
+import static de.uzk.config.LanguageHandler.getWord;
+
+/**
+ * Legt fest, wie die {@link Playback} am Ende der abgespielten Achse fortfährt.
+ */
+public enum PlaybackMode {
+    /**
+     * Nach dem letzten Bild wieder mit dem ersten beginnen.
+     */
+    LOOP,
+    /**
+     * Am Ende die Richtung umkehren und wieder zurücklaufen.
+     */
+    PING_PONG;
+
+    @Override
+    public String toString() {
+        return switch (this) {
+            case LOOP -> getWord("menu.nav.playback.mode.loop");
+            case PING_PONG -> getWord("menu.nav.playback.mode.pingPong");
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package de.uzk.image;
+
+import java.awt.*;
+
+/**
+ * Qualitätsstufen, in denen das Bild skaliert und transformiert wird. Während der Nutzer interagiert
+ * (Scrollen, Verschieben, Abspielen), wird eine schnellere Stufe verwendet; sobald keine Eingaben mehr
+ * erfolgen, wird das Bild in {@link #HIGH} verfeinert.
+ *
+ * @see ImageEditor
+ */
+public enum RenderQuality {
+    /**
+     * Nächster Nachbar, z.B. beim schnellen Scrollen durch Zeit oder Ebenen.
+     */
+    FAST(RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR, RenderingHints.VALUE_RENDER_SPEED),
+    /**
+     * Bilinear, z.B. beim Verschieben des Bildes mit der Maus.
+     */
+    BALANCED(RenderingHints.VALUE_INTERPOLATION_BILINEAR, RenderingHints.VALUE_RENDER_SPEED),
+    /**
+     * Bikubisch, für das endgültige Bild.
+     */
+    HIGH(RenderingHints.VALUE_INTERPOLATION_BICUBIC, RenderingHints.VALUE_RENDER_QUALITY);
+
+    private final Object interpolation;
+    private final Object rendering;
+
+    RenderQuality(Object interpolation, Object rendering) {
+        this.interpolation = interpolation;
+        this.rendering = rendering;
+    }
+
+    /**
+     * Setzt die Interpolation und Render-Qualität der gegebenen Zeichenfläche auf diese Stufe.
+     *
+     * @param g2d die Zeichenfläche
+     * @return <code>g2d</code>
+     *
+     */
+    public Graphics2D applyTo(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, rendering);
+        return g2d;
+    }
+
+    /**
+     * @return die schlechtere (d.h. schnellere) der beiden Stufen
+     */
+    public RenderQuality min(RenderQuality other) {
+        return ordinal() <= other.ordinal() ? this : other;
+    }
+}
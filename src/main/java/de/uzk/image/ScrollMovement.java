@@ -0,0 +1,84 @@
+package de.uzk.image;
+
+/**
+ * Verfolgt eine Scrollbewegung entlang einer {@link Axis} und leitet aus ihrer Geschwindigkeit ab, wie viele
+ * Bilder im Voraus dekodiert werden sollen.
+ * <p>
+ * Die Geschwindigkeit (Bilder pro Sekunde) wird über die Schritte einer Bewegung geglättet. Eine neue Bewegung
+ * beginnt, sobald sich die Achse oder die Richtung ändert oder länger nicht gescrollt wurde; die Geschwindigkeit
+ * beginnt dann wieder bei 0.
+ *
+ * @see FramePrefetcher
+ */
+public final class ScrollMovement {
+    /**
+     * Anzahl der Bilder, die mindestens bzw. höchstens im Voraus dekodiert werden.
+     */
+    public static final int MIN_FRAMES_AHEAD = 2;
+    public static final int MAX_FRAMES_AHEAD = 16;
+    /**
+     * Pausen, die länger dauern, beginnen eine neue Scrollbewegung.
+     */
+    public static final long IDLE_RESET_NANOS = 500_000_000L;
+    // Zeitraum (in Sekunden), für den bei der aktuellen Geschwindigkeit vorausgeladen wird
+    private static final double LOOKAHEAD_SECONDS = 0.5;
+    // Gewichtung neuer Messwerte bei der Glättung der Geschwindigkeit
+    private static final double VELOCITY_SMOOTHING = 0.5;
+    private Axis lastAxis;
+    private int lastDirection;
+    private long lastScrollNanos;
+    private double velocity;
+    private boolean newMovement = true;
+
+    /**
+     * Nimmt einen Scrollschritt auf.
+     *
+     * @param axis     die Achse, entlang der gescrollt wurde
+     * @param rotation Anzahl der übersprungenen Bilder; das Vorzeichen gibt die Richtung an
+     * @param nanos    Zeitpunkt des Schritts (siehe {@link System#nanoTime()})
+     * @return die Anzahl der Bilder, die in Scrollrichtung im Voraus dekodiert werden sollen
+     */
+    public int update(Axis axis, int rotation, long nanos) {
+        int direction = Integer.signum(rotation);
+        newMovement = axis != lastAxis || direction != lastDirection || nanos - lastScrollNanos >= IDLE_RESET_NANOS;
+
+        // Geschwindigkeit glätten; bei einer neuen Bewegung von vorne beginnen
+        if (newMovement) {
+            velocity = 0;
+        } else {
+            double seconds = Math.max(1e-3, (nanos - lastScrollNanos) / 1e9);
+            double current = Math.abs(rotation) / seconds;
+            velocity = VELOCITY_SMOOTHING * current + (1 - VELOCITY_SMOOTHING) * velocity;
+        }
+        lastAxis = axis;
+        lastDirection = direction;
+        lastScrollNanos = nanos;
+        return getFramesAhead();
+    }
+
+    /**
+     * @return <code>true</code>, wenn der zuletzt aufgenommene Schritt eine neue Bewegung begonnen hat (z.B. nach
+     * einem Richtungswechsel)
+     */
+    public boolean isNewMovement() {
+        return newMovement;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public int getFramesAhead() {
+        int framesAhead = (int) Math.ceil(velocity * LOOKAHEAD_SECONDS);
+        return Math.max(MIN_FRAMES_AHEAD, Math.min(MAX_FRAMES_AHEAD, framesAhead));
+    }
+
+    /**
+     * Beendet die aktuelle Bewegung; der nächste Schritt beginnt eine neue.
+     */
+    public void reset() {
+        lastAxis = null;
+        velocity = 0;
+        newMovement = true;
+    }
+}
@@ -0,0 +1,185 @@
+package de.uzk.image;
+
+import de.uzk.image.kernels.PixelKernels;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fasst alle Tonwertanpassungen (derzeit Helligkeit und Kontrast) zu je einer Tabelle pro Farbkanal zusammen.
+ * Das Anwenden kostet dadurch nur einen Tabellenzugriff pro Kanal und Pixel, unabhängig davon, wie viele
+ * Anpassungen hinzukommen (z.B. Gamma oder Farbtabellen).
+ * <p>
+ * Eine Instanz ist unveränderlich und kann so lange wiederverwendet werden, bis sich die Einstellungen ändern
+ * (siehe {@link #matches}). Große Bilder werden in Streifen aus Zeilen zerlegt und parallel bearbeitet.
+ *
+ * @see ImageEditor
+ */
+public final class ToneMapping {
+    // Unterhalb dieser Anzahl an Pixeln wird ein Streifen nicht weiter aufgeteilt
+    private static final int MIN_STRIP_PIXELS = 1 << 16;
+    private final int brightness;
+    private final int contrast;
+    private final int[] redTable;
+    private final int[] greenTable;
+    private final int[] blueTable;
+    private final boolean identity;
+
+    private ToneMapping(int brightness, int contrast) {
+        this.brightness = brightness;
+        this.contrast = contrast;
+
+        // Entspricht einem RescaleOp mit: Wert * scale + offset
+        float offset = 128 * ((brightness - 100) / 100f);
+        float scale = contrast / 100f;
+        int[] table = new int[256];
+        boolean identity = true;
+        for (int value = 0; value < table.length; value++) {
+            table[value] = Math.max(0, Math.min(255, (int) (value * scale + offset)));
+            identity &= table[value] == value;
+        }
+
+        // Alle Kanäle teilen sich vorerst dieselbe Tabelle
+        redTable = table;
+        greenTable = table;
+        blueTable = table;
+        this.identity = identity;
+    }
+
+    /**
+     * @param brightness die Helligkeit in Prozent
+     * @param contrast   der Kontrast in Prozent
+     * @return die Tonwertanpassung für die gegebenen Einstellungen
+     */
+    public static ToneMapping of(int brightness, int contrast) {
+        return new ToneMapping(brightness, contrast);
+    }
+
+    /**
+     * @return ob diese Tonwertanpassung für die gegebenen Einstellungen erstellt wurde
+     */
+    public boolean matches(int brightness, int contrast) {
+        return this.brightness == brightness && this.contrast == contrast;
+    }
+
+    /**
+     * @return ob die Tonwertanpassung keinen Pixel verändert
+     */
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    /**
+     * Wendet die Tonwertanpassung auf ein Bild an. Das Quellbild wird nicht verändert.
+     *
+     * @param source      das Quellbild
+     * @param destination ein Bild vom Typ {@link BufferedImage#TYPE_INT_ARGB} in der Größe des Quellbildes
+     * @return das Zielbild
+     */
+    public BufferedImage apply(BufferedImage source, BufferedImage destination) {
+        if (destination.getType() != BufferedImage.TYPE_INT_ARGB) {
+            throw new IllegalArgumentException("The destination must be of the type TYPE_INT_ARGB.");
+        }
+        if (source.getWidth() != destination.getWidth() || source.getHeight() != destination.getHeight()) {
+            throw new IllegalArgumentException("The source and destination must have the same size.");
+        }
+
+        int[] output = ((DataBufferInt) destination.getRaster().getDataBuffer()).getData();
+        ColorModel colorModel = source.getColorModel();
+        Raster raster = source.getRaster();
+        if (isPackedRGB(colorModel, raster) || isInterleavedRGB(colorModel, raster)) {
+            ForkJoinPool.commonPool().invoke(new StripTask(source, output, 0, source.getHeight()));
+        } else {
+            // Die Farbumrechnung anderer Farbmodelle ist nicht zwingend threadsicher
+            applyRows(source, output, 0, source.getHeight());
+        }
+        return destination;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private void applyRows(BufferedImage source, int[] output, int fromRow, int toRow) {
+        int width = source.getWidth();
+        Raster raster = source.getRaster();
+        ColorModel colorModel = source.getColorModel();
+        PixelKernels kernels = PixelKernels.getDefault();
+        int[] row = new int[width];
+
+        if (isPackedRGB(colorModel, raster)) {
+            // z.B. TYPE_INT_RGB, TYPE_INT_ARGB oder Bilder aus der Volumendatei
+            boolean opaque = !colorModel.hasAlpha();
+            for (int y = fromRow; y < toRow; y++) {
+                raster.getDataElements(0, y, width, 1, row);
+                kernels.applyTables(row, 0, output, y * width, width, redTable, greenTable, blueTable, opaque);
+            }
+        } else if (isInterleavedRGB(colorModel, raster)) {
+            // z.B. TYPE_3BYTE_BGR oder TYPE_4BYTE_ABGR; die Bänder liegen in der Reihenfolge R, G, B (, A) vor
+            int bands = raster.getNumBands();
+            byte[] bytes = new byte[width * bands];
+            for (int y = fromRow; y < toRow; y++) {
+                raster.getDataElements(0, y, width, 1, bytes);
+                for (int x = 0, i = 0; x < width; x++, i += bands) {
+                    int alpha = bands == 4 ? bytes[i + 3] & 0xFF : 0xFF;
+                    row[x] = alpha << 24 | (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+                }
+                kernels.applyTables(row, 0, output, y * width, width, redTable, greenTable, blueTable, false);
+            }
+        } else {
+            // Alle übrigen Formate (Graustufen, Farbpaletten, ...) über die Farbumrechnung des Bildes
+            for (int y = fromRow; y < toRow; y++) {
+                source.getRGB(0, y, width, 1, row, 0, width);
+                kernels.applyTables(row, 0, output, y * width, width, redTable, greenTable, blueTable, false);
+            }
+        }
+    }
+
+    private static boolean isPackedRGB(ColorModel colorModel, Raster raster) {
+        if (!(colorModel instanceof DirectColorModel directColorModel)) return false;
+        if (raster.getTransferType() != DataBuffer.TYPE_INT || colorModel.isAlphaPremultiplied()) return false;
+        boolean alphaMatches = !colorModel.hasAlpha() || directColorModel.getAlphaMask() == 0xFF000000;
+        return alphaMatches && directColorModel.getRedMask() == 0xFF0000 &&
+            directColorModel.getGreenMask() == 0xFF00 && directColorModel.getBlueMask() == 0xFF;
+    }
+
+    private static boolean isInterleavedRGB(ColorModel colorModel, Raster raster) {
+        if (!(colorModel instanceof ComponentColorModel)) return false;
+        if (raster.getTransferType() != DataBuffer.TYPE_BYTE || colorModel.isAlphaPremultiplied()) return false;
+        if (!colorModel.getColorSpace().isCS_sRGB() || colorModel.getColorSpace().getType() != ColorSpace.TYPE_RGB) {
+            return false;
+        }
+        int bands = raster.getNumBands();
+        return bands == 3 || (bands == 4 && colorModel.hasAlpha());
+    }
+
+    /**
+     * Bearbeitet einen Streifen aus Zeilen und teilt ihn auf, solange er groß genug ist.
+     */
+    private final class StripTask extends RecursiveAction {
+        private final BufferedImage source;
+        private final int[] output;
+        private final int fromRow;
+        private final int toRow;
+
+        private StripTask(BufferedImage source, int[] output, int fromRow, int toRow) {
+            this.source = source;
+            this.output = output;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = toRow - fromRow;
+            if (rows < 2 || (long) rows * source.getWidth() <= MIN_STRIP_PIXELS) {
+                applyRows(source, output, fromRow, toRow);
+                return;
+            }
+
+            int middleRow = fromRow + rows / 2;
+            invokeAll(new StripTask(source, output, fromRow, middleRow), new StripTask(source, output, middleRow, toRow));
+        }
+    }
+}
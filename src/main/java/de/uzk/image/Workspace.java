@@ -3,6 +3,11 @@ package de.uzk.image;
 import de.uzk.config.Config;
 import de.uzk.config.History;
 import de.uzk.edit.EditManager;
+import de.uzk.io.FrameSource;
+import de.uzk.io.PathManager;
+import de.uzk.io.PyramidStore;
+import de.uzk.io.ThumbnailStore;
+import de.uzk.io.VolumeStore;
 import de.uzk.markers.Markers;
 import de.uzk.utils.NumberUtils;
 import de.uzk.utils.StringUtils;
@@ -21,8 +26,18 @@ import static de.uzk.Main.*;
 // Der Workspace entspricht einem Projekt
 public class Workspace {
     private final MissingImagesReport missingImagesReport;
-    private final List<Integer> pinTimes;
+    // Angeheftete Zeitpunkte, aufsteigend sortiert
+    private final BitSet pinTimes;
     private final EditManager editManager = new EditManager();
+    // Bereits dekodierte Bilder des aktuellen Projekts
+    private final FrameCache frameCache;
+    // Verkleinerte Stufen und Kacheln sehr großer Bilder im Projektverzeichnis
+    private final PyramidStore pyramidStore = new PyramidStore();
+    // Optionale Volumendatei mit allen Bildern des Projekts
+    private final VolumeStore volumeStore = new VolumeStore();
+    private final FrameSource frameSource = new FrameSource(volumeStore, pyramidStore);
+    // Vorschaubilder aller Bilder des Projekts
+    private final ThumbnailStore thumbnailStore = new ThumbnailStore();
     // Konfigurationen und Markierungen
     private Path imagesDirectory;
     private Config config;
@@ -39,7 +54,8 @@ public class Workspace {
 
     public Workspace() {
         missingImagesReport = new MissingImagesReport();
-        pinTimes = new ArrayList<>();
+        pinTimes = new BitSet();
+        frameCache = new FrameCache((long) settings.getFrameCacheSize() << 20);
         reset();
     }
 
@@ -59,6 +75,22 @@ public class Workspace {
         return markers;
     }
 
+    public FrameCache getFrameCache() {
+        return frameCache;
+    }
+
+    public VolumeStore getVolumeStore() {
+        return volumeStore;
+    }
+
+    public FrameSource getFrameSource() {
+        return frameSource;
+    }
+
+    public ThumbnailStore getThumbnailStore() {
+        return thumbnailStore;
+    }
+
     public void setCurrentImageSize(Dimension size) {
         currentImageSize = size;
     }
@@ -90,6 +122,18 @@ public class Workspace {
         return matrix[time][level];
     }
 
+    /**
+     * @param imageFile ein Bild
+     * @return <code>true</code>, wenn das Bild zum aktuell geladenen Projekt gehört (und nicht etwa zu einem
+     * zuvor geladenen mit gleicher Zeit und Ebene)
+     */
+    public boolean contains(ImageFile imageFile) {
+        ImageFile[][] matrix = this.matrix;
+        if (matrix == null || imageFile.getTime() >= matrix.length) return false;
+        ImageFile[] row = matrix[imageFile.getTime()];
+        return imageFile.getLevel() < row.length && row[imageFile.getLevel()] == imageFile;
+    }
+
     void setImageFile(int time, int level, ImageFile imageFile) {
         matrix[time][level] = imageFile;
     }
@@ -142,21 +186,21 @@ public class Workspace {
         return maxLevel;
     }
 
-    public List<Integer> getPinTimes() {
-        return new ArrayList<>(pinTimes);
+    /**
+     * @return die angehefteten Zeitpunkte in aufsteigender Reihenfolge
+     */
+    public int[] getPinTimes() {
+        return pinTimes.stream().toArray();
     }
 
-    public boolean isPinned(Integer time) {
-        if (!isLoaded() && isTimeInvalid(time)) return false;
-        return pinTimes.contains(time);
+    public boolean isPinned(int time) {
+        if (!isLoaded() || isTimeInvalid(time)) return false;
+        return pinTimes.get(time);
     }
 
     public void togglePinTime() {
         if (!isLoaded()) return;
-
-        Integer time = currentImageFile.getTime();
-        if (isPinned(time)) pinTimes.remove(time);
-        else pinTimes.add(time);
+        pinTimes.flip(currentImageFile.getTime());
     }
 
     // ========================================
@@ -230,6 +274,10 @@ public class Workspace {
         // Listen leeren
         missingImagesReport.clear();
         pinTimes.clear();
+        frameCache.clear();
+        pyramidStore.close();
+        thumbnailStore.close();
+        volumeStore.close();
     }
 
     // ========================================
@@ -276,60 +324,22 @@ public class Workspace {
     private boolean loadImages(LoadingImageListener progress) throws InterruptedException {
         progress.onLoadingStart();
 
-        // Pfade laden
+        // Pfade laden; ob es sich um reguläre Dateien handelt, wird erst für passende Dateinamen geprüft
         List<Path> paths;
-        try (DirectoryStream<Path> directory = Files.newDirectoryStream(imagesDirectory, Files::isRegularFile)) {
-            paths = StreamSupport.stream(directory.spliterator(), true).toList();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(imagesDirectory)) {
+            paths = StreamSupport.stream(directory.spliterator(), false).toList();
         } catch (IOException e) {
             progress.onLoadingComplete(0);
             return false;
         }
 
         progress.onScanningStart(paths.size(), 0, 0);
-        Set<ImageFile> imageFiles = new TreeSet<>(ImageFile::compareTo);
-        int tempMaxTime = 0;
-        int tempMaxLevel = 0;
-
-        // Dateinamen Muster erstellen
-        final String fileNamePattern = getImageFileNamePattern();
-        final int MAX_TIME = 9_999;
-        final int MAX_LEVEL = 999;
-
-        // Durchlaufe alle Pfade
-        for (int number = 1; number <= paths.size(); number++) {
-            if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
-
-            Path path = paths.get(number - 1);
-            String fileName = path.getFileName().toString();
-
-            // Prüft, ob der Pfad eine reguläre Datei ist und der Name dem Muster entspricht
-            if (Files.isRegularFile(path) && fileName.matches(fileNamePattern)) {
-                int time = NumberUtils.parseInteger(getTimeStr(fileName));
-                int level = NumberUtils.parseInteger(getLevelStr(fileName));
-
-                // Grenzwert bestimmen
-                boolean validTime = NumberUtils.valueInRange(time, 0, MAX_TIME);
-                boolean validLevel = NumberUtils.valueInRange(level, 0, MAX_LEVEL);
-                if (!validTime || !validLevel) {
-                    List<String> invalidParts = new ArrayList<>();
-                    if (!validTime)
-                        invalidParts.add("Invalid Time=%d => Valid Range=[%d, %d]".formatted(time, 0, MAX_TIME));
-                    if (!validLevel)
-                        invalidParts.add("Invalid Level=%d => Valid Range=[%d, %d]".formatted(level, 0, MAX_LEVEL));
-
-                    logger.warn("Could not load the image-file '%s'. (Cause: %s)".formatted(fileName, String.join(" | ", invalidParts)));
-                    continue;
-                }
-
-                // Maximalwerte bestimmen (Matrixgröße)
-                tempMaxTime = Math.max(tempMaxTime, time);
-                tempMaxLevel = Math.max(tempMaxLevel, level);
-                imageFiles.add(new ImageFile(path, time, level));
-            }
 
-            // Fortschritt aktualisieren
-            progress.onScanningUpdate(paths.size(), number, path, imageFiles.size());
-        }
+        // Dateinamen parallel auswerten; das Muster wird dafür einmalig kompiliert
+        ImageDirectoryScan scan = new ImageDirectoryScan(paths, createImageFileNameParser());
+        List<ImageFile> imageFiles = scan.run(progress);
+        int tempMaxTime = scan.getMaxTime();
+        int tempMaxLevel = scan.getMaxLevel();
 
         progress.onScanningComplete(paths.size(), paths.size(), imageFiles.size());
 
@@ -348,6 +358,14 @@ public class Workspace {
         int imagesCount = createMatrix(imageFiles);
         setCurrentImageFile(0, 0);
 
+        // Volumendatei öffnen, falls vorhanden
+        List<ImageFile> allImageFiles = getImageFiles();
+        volumeStore.open(PathManager.resolveProjectPath(PathManager.VOLUME_FILE_NAME), allImageFiles, maxTime + 1, maxLevel + 1);
+
+        // Vorschaubilder und Bildpyramiden im Hintergrund erzeugen
+        thumbnailStore.open(PathManager.resolveProjectPath(PathManager.THUMBNAILS_FILE_NAME), allImageFiles);
+        pyramidStore.open(PathManager.getProjectPyramidDirectory(), allImageFiles);
+
         progress.onLoadingComplete(imagesCount);
         return true;
     }
@@ -355,7 +373,7 @@ public class Workspace {
     // ========================================
     // Erstelle Matrix
     // ========================================
-    private int createMatrix(Set<ImageFile> imageFiles) {
+    private int createMatrix(List<ImageFile> imageFiles) {
         int tSize = maxTime + 1;
         int lSize = maxLevel + 1;
         matrix = new ImageFile[tSize][lSize];
@@ -436,6 +454,22 @@ public class Workspace {
             "\\." + StringUtils.formatArray(config.getImageFileType().getExtensions(), "|", '(', ')') + "$";
     }
 
+    public ImageFileNameParser createImageFileNameParser() {
+        return new ImageFileNameParser(config.getTimeSep(), config.getLevelSep(), config.getImageFileType());
+    }
+
+    /**
+     * @return alle Bilder des Projekts, zeilenweise nach Zeit, dann Ebene (inkl. Platzhaltern für fehlende Bilder)
+     */
+    public List<ImageFile> getImageFiles() {
+        if (!isLoaded()) return new ArrayList<>();
+        List<ImageFile> imageFiles = new ArrayList<>();
+        for (ImageFile[] row : matrix) {
+            imageFiles.addAll(Arrays.asList(row));
+        }
+        return imageFiles;
+    }
+
     private Path getDummyImageFilePath(int time, int level, ImageFile referenceImageFile) {
         String fileName = referenceImageFile.getFileName();
         Path parentDirectory = referenceImageFile.getFilePath().getParent();
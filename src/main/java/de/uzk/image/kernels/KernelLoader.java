@@ -0,0 +1,41 @@
+package de.uzk.image.kernels;
+
+import static de.uzk.Main.logger;
+
+/**
+ * Wählt beim ersten Zugriff die Implementierung von {@link PixelKernels} aus.
+ * <p>
+ * Die Vector API ist ein Inkubator-Modul, das zur Laufzeit ausdrücklich aktiviert werden muss. Die
+ * vektorisierte Implementierung wird daher nur per Reflection geladen, wenn das Modul vorhanden ist;
+ * andernfalls würde bereits das Laden der Klasse fehlschlagen.
+ * <p>
+ * Aktiviert wird das Modul mit <code>--add-modules jdk.incubator.vector</code> beim Aufruf von <code>java</code>
+ * bzw. über <code>mvn exec:exec@run</code> (siehe README).
+ */
+final class KernelLoader {
+    static final PixelKernels DEFAULT = load();
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS_CLASS = "de.uzk.image.kernels.VectorPixelKernels";
+
+    /**
+     * Privater Konstruktor, um eine Instanziierung dieser Klasse zu unterbinden.
+     */
+    private KernelLoader() {
+        // Verhindert die Instanziierung dieser Klasse
+    }
+
+    private static PixelKernels load() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                PixelKernels kernels = (PixelKernels) Class.forName(VECTOR_KERNELS_CLASS).getDeclaredConstructor().newInstance();
+                logger.info("Using the pixel kernels '%s'.".formatted(kernels.getName()));
+                return kernels;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Could not load the vectorized pixel kernels: " + e);
+            }
+        } else {
+            logger.info("The module '%s' is not enabled, using the scalar pixel kernels. (Hint: start with '--add-modules %s')".formatted(VECTOR_MODULE, VECTOR_MODULE));
+        }
+        return new ScalarPixelKernels();
+    }
+}
@@ -0,0 +1,61 @@
+package de.uzk.image.kernels;
+
+/**
+ * Grundlegende Operationen auf Pixeln, die in den rechenintensiven Schleifen der Bildbearbeitung benötigt
+ * werden. Pixel liegen dabei immer gepackt als ARGB (8 Bit je Kanal) vor, Graustufen als ein Byte je Pixel.
+ * <p>
+ * Über {@link #getDefault()} wird die schnellste verfügbare Implementierung geliefert: Ist das Modul
+ * {@code jdk.incubator.vector} aktiviert (z.B. über {@code --add-modules jdk.incubator.vector}), wird die
+ * Vector API verwendet, andernfalls eine gewöhnliche Schleife je Pixel.
+ *
+ * @see ScalarPixelKernels
+ * @see de.uzk.devtools.PixelKernelsBenchmark
+ */
+public interface PixelKernels {
+
+    /**
+     * @return die schnellste verfügbare Implementierung
+     */
+    static PixelKernels getDefault() {
+        return KernelLoader.DEFAULT;
+    }
+
+    /**
+     * @return ein kurzer Name der Implementierung, z.B. für Protokolle
+     */
+    String getName();
+
+    /**
+     * Ersetzt jeden Farbkanal über eine Tabelle mit 256 Einträgen (z.B. für Helligkeit und Kontrast).
+     *
+     * @param source            die Quellpixel
+     * @param sourceOffset      Index des ersten Quellpixels
+     * @param destination       die Zielpixel
+     * @param destinationOffset Index des ersten Zielpixels
+     * @param length            Anzahl der Pixel
+     * @param opaque            ob der Alphakanal der Quelle ignoriert und deckend gesetzt werden soll
+     */
+    void applyTables(int[] source, int sourceOffset, int[] destination, int destinationOffset, int length,
+                     int[] redTable, int[] greenTable, int[] blueTable, boolean opaque);
+
+    /**
+     * Wandelt Farbpixel in Graustufen um (Luminanz nach ITU-R BT.601).
+     */
+    void toGray(int[] argb, int argbOffset, byte[] gray, int grayOffset, int length);
+
+    /**
+     * Wandelt Graustufen in deckende Farbpixel um.
+     */
+    void fromGray(byte[] gray, int grayOffset, int[] argb, int argbOffset, int length);
+
+    /**
+     * Bildet je Kanal das Maximum aus Akkumulator und Quelle und legt es im Akkumulator ab (Maximumprojektion
+     * über mehrere Bilder).
+     */
+    void maxProjection(int[] accumulator, int[] source, int offset, int length);
+
+    /**
+     * Berechnet je Farbkanal den Betrag der Differenz zweier Bilder; das Ergebnis ist deckend.
+     */
+    void absDifference(int[] first, int[] second, int[] destination, int offset, int length);
+}
@@ -0,0 +1,68 @@
+package de.uzk.image.kernels;
+
+/**
+ * Implementierung von {@link PixelKernels} mit einer gewöhnlichen Schleife je Pixel. Sie steht immer zur
+ * Verfügung und dient zugleich als Referenz für die vektorisierte Implementierung.
+ */
+public class ScalarPixelKernels implements PixelKernels {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public void applyTables(int[] source, int sourceOffset, int[] destination, int destinationOffset, int length,
+                            int[] redTable, int[] greenTable, int[] blueTable, boolean opaque) {
+        for (int i = 0; i < length; i++) {
+            int pixel = source[sourceOffset + i];
+            int alpha = opaque ? 0xFF000000 : pixel & 0xFF000000;
+            destination[destinationOffset + i] = alpha | redTable[(pixel >> 16) & 0xFF] << 16 |
+                greenTable[(pixel >> 8) & 0xFF] << 8 | blueTable[pixel & 0xFF];
+        }
+    }
+
+    @Override
+    public void toGray(int[] argb, int argbOffset, byte[] gray, int grayOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            gray[grayOffset + i] = (byte) luminance(argb[argbOffset + i]);
+        }
+    }
+
+    @Override
+    public void fromGray(byte[] gray, int grayOffset, int[] argb, int argbOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            int value = gray[grayOffset + i] & 0xFF;
+            argb[argbOffset + i] = 0xFF000000 | value << 16 | value << 8 | value;
+        }
+    }
+
+    @Override
+    public void maxProjection(int[] accumulator, int[] source, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            int first = accumulator[i];
+            int second = source[i];
+            accumulator[i] = Math.max(first >>> 24, second >>> 24) << 24 |
+                Math.max(first & 0xFF0000, second & 0xFF0000) |
+                Math.max(first & 0xFF00, second & 0xFF00) |
+                Math.max(first & 0xFF, second & 0xFF);
+        }
+    }
+
+    @Override
+    public void absDifference(int[] first, int[] second, int[] destination, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            int a = first[i];
+            int b = second[i];
+            destination[i] = 0xFF000000 |
+                Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) << 16 |
+                Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) << 8 |
+                Math.abs((a & 0xFF) - (b & 0xFF));
+        }
+    }
+
+    static int luminance(int pixel) {
+        // Gewichte 0.299, 0.587, 0.114 in Festkomma (× 256)
+        return (77 * ((pixel >> 16) & 0xFF) + 150 * ((pixel >> 8) & 0xFF) + 29 * (pixel & 0xFF) + 128) >> 8;
+    }
+}
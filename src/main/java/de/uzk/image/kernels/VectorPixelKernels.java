@@ -0,0 +1,156 @@
+package de.uzk.image.kernels;
+
+import jdk.incubator.vector.*;
+
+/**
+ * Implementierung von {@link PixelKernels} mit der Vector API. Die Vektorbreite richtet sich nach der Plattform
+ * ({@link IntVector#SPECIES_PREFERRED}, z.B. 128 Bit mit NEON, 256 Bit mit AVX2), sodass die Operationen stets
+ * auf native Befehle abgebildet werden; verbleibende Pixel am Ende übernimmt die skalare Implementierung.
+ * <p>
+ * Graustufen werden in Byte-Vektoren mit mindestens 64 Bit gelesen und geschrieben. Sind das mehr Lanes als ein
+ * Int-Vektor besitzt, wird ein Byte-Vektor in mehreren Teilen umgewandelt.
+ * <p>
+ * Diese Klasse darf nur über {@link KernelLoader} geladen werden, da sie ohne das Modul
+ * {@code jdk.incubator.vector} nicht geladen werden kann.
+ */
+final class VectorPixelKernels extends ScalarPixelKernels {
+    // Kleinste Vektorbreite, die die Vector API für Bytes anbietet
+    private static final int MIN_BYTE_VECTOR_BITS = 64;
+    private final VectorSpecies<Integer> ints;
+    // Für Graustufen: ein ganzzahliges Vielfaches (parts) der Lanes von ints
+    private final VectorSpecies<Byte> bytes;
+    private final int parts;
+    // Indizes für Gather-Operationen; je Thread einmalig angelegt, da die Kernel von mehreren Threads genutzt werden
+    private final ThreadLocal<int[]> gatherIndices;
+
+    VectorPixelKernels() {
+        this(IntVector.SPECIES_PREFERRED);
+    }
+
+    VectorPixelKernels(VectorSpecies<Integer> ints) {
+        this.ints = ints;
+        this.bytes = VectorSpecies.of(byte.class, VectorShape.forBitSize(Math.max(MIN_BYTE_VECTOR_BITS, ints.length() * Byte.SIZE)));
+        this.parts = bytes.length() / ints.length();
+        this.gatherIndices = ThreadLocal.withInitial(() -> new int[ints.length()]);
+    }
+
+    @Override
+    public String getName() {
+        return "vector (%d bit)".formatted(ints.vectorBitSize());
+    }
+
+    @Override
+    public void applyTables(int[] source, int sourceOffset, int[] destination, int destinationOffset, int length,
+                            int[] redTable, int[] greenTable, int[] blueTable, boolean opaque) {
+        int[] indices = gatherIndices.get();
+        int upperBound = ints.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += ints.length()) {
+            IntVector pixels = IntVector.fromArray(ints, source, sourceOffset + i);
+            IntVector alpha = opaque ? IntVector.broadcast(ints, 0xFF000000) : pixels.and(0xFF000000);
+
+            // Tabellenzugriffe als Gather-Operation
+            IntVector red = gather(redTable, pixels.lanewise(VectorOperators.LSHR, 16).and(0xFF), indices);
+            IntVector green = gather(greenTable, pixels.lanewise(VectorOperators.LSHR, 8).and(0xFF), indices);
+            IntVector blue = gather(blueTable, pixels.and(0xFF), indices);
+
+            alpha.or(red.lanewise(VectorOperators.LSHL, 16))
+                .or(green.lanewise(VectorOperators.LSHL, 8))
+                .or(blue)
+                .intoArray(destination, destinationOffset + i);
+        }
+        super.applyTables(source, sourceOffset + i, destination, destinationOffset + i, length - i,
+            redTable, greenTable, blueTable, opaque);
+    }
+
+    @Override
+    public void toGray(int[] argb, int argbOffset, byte[] gray, int grayOffset, int length) {
+        int upperBound = bytes.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += bytes.length()) {
+            ByteVector result = ByteVector.zero(bytes);
+            for (int part = 0; part < parts; part++) {
+                IntVector pixels = IntVector.fromArray(ints, argb, argbOffset + i + part * ints.length());
+                IntVector red = pixels.lanewise(VectorOperators.LSHR, 16).and(0xFF);
+                IntVector green = pixels.lanewise(VectorOperators.LSHR, 8).and(0xFF);
+                IntVector blue = pixels.and(0xFF);
+
+                IntVector luminance = red.mul(77).add(green.mul(150)).add(blue.mul(29)).add(128)
+                    .lanewise(VectorOperators.LSHR, 8);
+                // Beim Verkleinern landet Teil n in den Lanes ab n × ints.length() (Teilnummer -n), der Rest ist 0
+                result = result.or((ByteVector) luminance.convertShape(VectorOperators.I2B, bytes, -part));
+            }
+            result.intoArray(gray, grayOffset + i);
+        }
+        super.toGray(argb, argbOffset + i, gray, grayOffset + i, length - i);
+    }
+
+    @Override
+    public void fromGray(byte[] gray, int grayOffset, int[] argb, int argbOffset, int length) {
+        int upperBound = bytes.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += bytes.length()) {
+            ByteVector values = ByteVector.fromArray(bytes, gray, grayOffset + i);
+            for (int part = 0; part < parts; part++) {
+                IntVector value = ((IntVector) values.convertShape(VectorOperators.B2I, ints, part)).and(0xFF);
+                value.lanewise(VectorOperators.LSHL, 16)
+                    .or(value.lanewise(VectorOperators.LSHL, 8))
+                    .or(value)
+                    .or(0xFF000000)
+                    .intoArray(argb, argbOffset + i + part * ints.length());
+            }
+        }
+        super.fromGray(gray, grayOffset + i, argb, argbOffset + i, length - i);
+    }
+
+    @Override
+    public void maxProjection(int[] accumulator, int[] source, int offset, int length) {
+        int upperBound = ints.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += ints.length()) {
+            IntVector first = IntVector.fromArray(ints, accumulator, offset + i);
+            IntVector second = IntVector.fromArray(ints, source, offset + i);
+
+            // Der Alphakanal wird vor dem Vergleich verschoben, da er sonst als Vorzeichen zählt
+            IntVector alpha = first.lanewise(VectorOperators.LSHR, 24).max(second.lanewise(VectorOperators.LSHR, 24))
+                .lanewise(VectorOperators.LSHL, 24);
+            alpha.or(first.and(0xFF0000).max(second.and(0xFF0000)))
+                .or(first.and(0xFF00).max(second.and(0xFF00)))
+                .or(first.and(0xFF).max(second.and(0xFF)))
+                .intoArray(accumulator, offset + i);
+        }
+        super.maxProjection(accumulator, source, offset + i, length - i);
+    }
+
+    @Override
+    public void absDifference(int[] first, int[] second, int[] destination, int offset, int length) {
+        int upperBound = ints.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += ints.length()) {
+            IntVector a = IntVector.fromArray(ints, first, offset + i);
+            IntVector b = IntVector.fromArray(ints, second, offset + i);
+
+            IntVector red = channel(a, 16).sub(channel(b, 16)).abs();
+            IntVector green = channel(a, 8).sub(channel(b, 8)).abs();
+            IntVector blue = channel(a, 0).sub(channel(b, 0)).abs();
+            red.lanewise(VectorOperators.LSHL, 16)
+                .or(green.lanewise(VectorOperators.LSHL, 8))
+                .or(blue)
+                .or(0xFF000000)
+                .intoArray(destination, offset + i);
+        }
+        super.absDifference(first, second, destination, offset + i, length - i);
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private IntVector gather(int[] table, IntVector index, int[] indices) {
+        index.intoArray(indices, 0);
+        return IntVector.fromArray(ints, table, 0, indices, 0);
+    }
+
+    private static IntVector channel(IntVector pixels, int shift) {
+        return pixels.lanewise(VectorOperators.LSHR, shift).and(0xFF);
+    }
+}
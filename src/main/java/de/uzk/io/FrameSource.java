@@ -0,0 +1,76 @@
+package de.uzk.io;
+
+import de.uzk.image.DecodeTarget;
+import de.uzk.image.DecodedFrame;
+import de.uzk.image.FrameCache;
+import de.uzk.image.ImageFile;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.uzk.Main.workspace;
+
+/**
+ * Liefert die Pixeldaten eines Bildes aus der schnellsten verfügbaren Quelle:
+ * <ol>
+ *     <li>der Volumendatei des Projekts ({@link VolumeStore}), ohne zu dekodieren,</li>
+ *     <li>der Bildpyramide ({@link PyramidStore}), nur die benötigten Kacheln,</li>
+ *     <li>der Originaldatei ({@link ImageLoader#openFrame}).</li>
+ * </ol>
+ * <p>
+ * Bilder, die im Voraus benötigt werden (Vorladen beim Scrollen, Wiedergabe, angeheftete Zeitpunkte), werden über
+ * {@link #decodeInBackground} auf gemeinsamen Hintergrund-Threads dekodiert. Das angezeigte Bild selbst dekodiert
+ * der {@link de.uzk.image.FrameDecoder} auf einem eigenen Thread, damit es nie hinter diesen Anfragen warten muss.
+ */
+public class FrameSource {
+    private static final ExecutorService BACKGROUND_EXECUTOR = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "FrameSource");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final VolumeStore volumeStore;
+    private final PyramidStore pyramidStore;
+
+    public FrameSource(VolumeStore volumeStore, PyramidStore pyramidStore) {
+        this.volumeStore = volumeStore;
+        this.pyramidStore = pyramidStore;
+    }
+
+    /**
+     * @param imageFile das Bild
+     * @param target    die benötigte Auflösung und der sichtbare Ausschnitt
+     * @return das Bild oder <code>null</code>, falls es nicht geladen werden konnte
+     */
+    public DecodedFrame openFrame(ImageFile imageFile, DecodeTarget target) {
+        DecodedFrame frame = volumeStore.openFrame(imageFile, target);
+        if (frame != null) return frame;
+        return pyramidStore.openFrame(imageFile, target);
+    }
+
+    /**
+     * Dekodiert ein Bild im Hintergrund und legt es im Cache ab. Liegt es dort bereits in ausreichender Auflösung
+     * vor oder gehört es inzwischen nicht mehr zum geladenen Projekt, wird nichts dekodiert.
+     *
+     * @param imageFile  das Bild
+     * @param target     die benötigte Auflösung und der sichtbare Ausschnitt
+     * @param frameCache der Cache, in dem das Bild abgelegt wird
+     * @return liefert <code>false</code>, falls das Bild nicht geladen werden konnte
+     */
+    public Future<Boolean> decodeInBackground(ImageFile imageFile, DecodeTarget target, FrameCache frameCache) {
+        return BACKGROUND_EXECUTOR.submit(() -> decodeIfRelevant(imageFile, target, frameCache));
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private boolean decodeIfRelevant(ImageFile imageFile, DecodeTarget target, FrameCache frameCache) {
+        // Das Projekt wurde inzwischen gewechselt oder das Bild bereits anderweitig dekodiert
+        if (frameCache.contains(imageFile, target) || !workspace.contains(imageFile)) return true;
+
+        DecodedFrame frame = openFrame(imageFile, target);
+        frameCache.put(imageFile, frame);
+        return frame != null;
+    }
+}
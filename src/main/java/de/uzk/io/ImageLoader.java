@@ -2,17 +2,27 @@ package de.uzk.io;
 
 import com.formdev.flatlaf.extras.FlatSVGIcon;
 import de.uzk.config.ThemeColor;
+import de.uzk.image.DecodeTarget;
+import de.uzk.image.DecodedFrame;
+import de.uzk.image.ImageFileType;
 import de.uzk.utils.ColorUtils;
 import de.uzk.utils.StringUtils;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 
@@ -79,9 +89,35 @@ public final class ImageLoader {
     }
 
     public static BufferedImage openImage(Path imagePath, boolean showErrorIfNotFound) {
+        return openImage(imagePath, null, showErrorIfNotFound);
+    }
+
+    /**
+     * Dekodiert ein Bild in voller Auflösung. Passt das gegebene Zielbild in Größe und Typ zum Bild, werden
+     * die Pixel direkt hineingeschrieben ({@link ImageReadParam#setDestination}), anstatt ein neues Bild
+     * anzulegen. Das Zielbild darf daher nur übergeben werden, wenn sein bisheriger Inhalt nicht mehr
+     * benötigt wird.
+     *
+     * @param imagePath           Pfad zur Bilddatei
+     * @param destination         wiederzuverwendendes Zielbild oder <code>null</code>
+     * @param showErrorIfNotFound ob ein Fehler protokolliert werden soll
+     * @return das dekodierte Bild (ggf. das Zielbild) oder <code>null</code>, falls die Datei nicht gelesen
+     * werden konnte
+     */
+    public static BufferedImage openImage(Path imagePath, BufferedImage destination, boolean showErrorIfNotFound) {
         if (imagePath != null) {
-            try {
-                return ImageIO.read(imagePath.toFile());
+            try (ImageInputStream input = ImageIO.createImageInputStream(imagePath.toFile())) {
+                if (input == null) throw new IOException("No input stream available.");
+                ImageReader reader = ImageReaderPool.acquire(imagePath, input);
+                if (reader == null) throw new IOException("No image reader available.");
+
+                try {
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    if (canDecodeInto(reader, destination)) param.setDestination(destination);
+                    return reader.read(0, param);
+                } finally {
+                    ImageReaderPool.release(reader);
+                }
             } catch (Exception e) {
                 if (showErrorIfNotFound) {
                     logger.warn("Could not open the image-file '%s'.".formatted(imagePath.toAbsolutePath()));
@@ -91,6 +127,102 @@ public final class ImageLoader {
         return null;
     }
 
+    /**
+     * Dekodiert ein Bild aus dem Speicher, z.B. ein Vorschaubild.
+     *
+     * @param data die kodierten Bilddaten
+     * @param type der Dateityp der Bilddaten
+     * @return das dekodierte Bild oder <code>null</code>, falls die Daten nicht gelesen werden konnten
+     */
+    public static BufferedImage openImage(byte[] data, ImageFileType type) {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            ImageReader reader = ImageReaderPool.acquire(type, input);
+            if (reader == null) return null;
+
+            try {
+                return reader.read(0);
+            } finally {
+                ImageReaderPool.release(reader);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Dekodiert ein Bild nur in der Auflösung, die für das gegebene Ziel benötigt wird. Dazu wird beim Lesen
+     * lediglich jedes n-te Pixel übernommen ({@link ImageReadParam#setSourceSubsampling}), sodass das Bild in
+     * voller Auflösung nie im Speicher liegt. Ist nur ein Ausschnitt sichtbar, wird zudem nur dieser Ausschnitt
+     * gelesen ({@link ImageReadParam#setSourceRegion}).
+     *
+     * @param imagePath Pfad zur Bilddatei
+     * @param target    die benötigte Auflösung
+     * @return das dekodierte Bild oder <code>null</code>, falls die Datei nicht gelesen werden konnte
+     */
+    public static DecodedFrame openFrame(Path imagePath, DecodeTarget target) {
+        if (imagePath == null) return null;
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(imagePath.toFile())) {
+            if (input == null) return null;
+            ImageReader reader = ImageReaderPool.acquire(imagePath, input);
+            if (reader == null) return null;
+
+            try {
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                int subsampling = target.getSubsampling(sourceWidth, sourceHeight);
+                Rectangle region = target.getDecodeRegion(sourceWidth, sourceHeight);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                if (region.width < sourceWidth || region.height < sourceHeight) param.setSourceRegion(region);
+                BufferedImage image = reader.read(0, param);
+                return new DecodedFrame(image, sourceWidth, sourceHeight, subsampling, region);
+            } finally {
+                ImageReaderPool.release(reader);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not decode the image-file '%s'.".formatted(imagePath.toAbsolutePath()));
+            return null;
+        }
+    }
+
+    /**
+     * Liest nur die Abmessungen eines Bildes aus dem Dateikopf, ohne die Pixeldaten zu dekodieren.
+     *
+     * @param imagePath Pfad zur Bilddatei
+     * @return die Abmessungen oder <code>null</code>, falls die Datei nicht gelesen werden konnte
+     */
+    public static Dimension readImageSize(Path imagePath) {
+        if (imagePath == null) return null;
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(imagePath.toFile())) {
+            if (input == null) return null;
+            ImageReader reader = ImageReaderPool.acquire(imagePath, input);
+            if (reader == null) return null;
+
+            try {
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                ImageReaderPool.release(reader);
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean canDecodeInto(ImageReader reader, BufferedImage destination) throws IOException {
+        if (destination == null || destination.getType() == BufferedImage.TYPE_CUSTOM) return false;
+        if (destination.getWidth() != reader.getWidth(0) || destination.getHeight() != reader.getHeight(0)) return false;
+
+        // Das Zielbild muss einem der Bildtypen entsprechen, die der Reader erzeugen kann
+        Iterator<ImageTypeSpecifier> imageTypes = reader.getImageTypes(0);
+        while (imageTypes.hasNext()) {
+            if (imageTypes.next().getBufferedImageType() == destination.getType()) return true;
+        }
+        return false;
+    }
+
     public static Image scaleAppIcon(int width, int height) {
         return APP_ICON == null ? null : APP_ICON.derive(width, height).getImage();
     }
@@ -0,0 +1,127 @@
+package de.uzk.io;
+
+import de.uzk.image.ImageFileType;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Hält pro Thread einen {@link ImageReader} je {@link ImageFileType} vor, damit beim Bildwechsel weder die
+ * Service-Registry durchsucht noch ein neuer Reader erzeugt werden muss. Ein Reader wird mit
+ * {@link #acquire} ausgeliehen und mit {@link #release} zurückgegeben; dabei wird er über
+ * {@link ImageReader#reset()} für die nächste Eingabe vorbereitet.
+ * <p>
+ * Die Klasse ist als {@code final} deklariert, um eine Vererbung zu verhindern.
+ * Da sämtliche Funktionalitäten über statische Methoden bereitgestellt werden,
+ * besitzt die Klasse einen privaten Konstruktor, um eine Instanziierung zu
+ * unterbinden.
+ */
+final class ImageReaderPool {
+    // ImageReader sind nicht threadsicher, daher besitzt jeder Thread seine eigenen
+    private static final ThreadLocal<Map<ImageFileType, ImageReader>> READERS =
+        ThreadLocal.withInitial(() -> new EnumMap<>(ImageFileType.class));
+
+    /**
+     * Privater Konstruktor, um eine Instanziierung dieser Klasse zu unterbinden.
+     */
+    private ImageReaderPool() {
+        // Verhindert die Instanziierung dieser Klasse
+    }
+
+    /**
+     * Leiht einen Reader für die Bilddatei aus und setzt die Eingabe. Der Dateityp wird anhand der
+     * Dateiendung bestimmt; passt der Inhalt nicht dazu, wird ein passender Reader über die Registry gesucht.
+     *
+     * @param imagePath Pfad zur Bilddatei
+     * @param input     die geöffnete Eingabe der Bilddatei
+     * @return der Reader oder <code>null</code>, falls kein passender Reader existiert
+     */
+    static ImageReader acquire(Path imagePath, ImageInputStream input) throws IOException {
+        return acquire(getImageFileType(imagePath), input);
+    }
+
+    /**
+     * Leiht einen Reader für den gegebenen Dateityp aus und setzt die Eingabe.
+     *
+     * @param type  der erwartete Dateityp oder <code>null</code>, falls er unbekannt ist
+     * @param input die geöffnete Eingabe
+     * @return der Reader oder <code>null</code>, falls kein passender Reader existiert
+     */
+    static ImageReader acquire(ImageFileType type, ImageInputStream input) throws IOException {
+        ImageReader reader = null;
+        if (type != null) {
+            reader = READERS.get().remove(type);
+            if (reader == null) reader = createReader(type);
+
+            // Dateiendung und Inhalt passen nicht zusammen
+            if (reader != null && !reader.getOriginatingProvider().canDecodeInput(input)) {
+                release(reader);
+                reader = null;
+            }
+        }
+
+        if (reader == null) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+            reader = readers.next();
+        }
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    /**
+     * Gibt einen ausgeliehenen Reader zurück. Reader, deren Typ bereits vorgehalten wird oder keinem
+     * {@link ImageFileType} entspricht, werden freigegeben.
+     *
+     * @param reader der Reader
+     */
+    static void release(ImageReader reader) {
+        if (reader == null) return;
+        reader.reset();
+
+        ImageFileType type = getImageFileType(reader.getOriginatingProvider());
+        if (type == null || READERS.get().putIfAbsent(type, reader) != null) {
+            reader.dispose();
+        }
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private static ImageReader createReader(ImageFileType type) {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(type.getType());
+        return readers.hasNext() ? readers.next() : null;
+    }
+
+    private static ImageFileType getImageFileType(Path imagePath) {
+        String fileName = imagePath.getFileName().toString();
+        int dotIndex = fileName.lastIndexOf('.');
+        if (dotIndex == -1) return null;
+
+        String extension = fileName.substring(dotIndex + 1);
+        for (ImageFileType type : ImageFileType.values()) {
+            for (String typeExtension : type.getExtensions()) {
+                if (typeExtension.equalsIgnoreCase(extension)) return type;
+            }
+        }
+        return null;
+    }
+
+    private static ImageFileType getImageFileType(ImageReaderSpi provider) {
+        if (provider == null) return null;
+
+        for (ImageFileType type : ImageFileType.values()) {
+            for (String formatName : provider.getFormatNames()) {
+                if (formatName.equalsIgnoreCase(type.getType())) return type;
+            }
+        }
+        return null;
+    }
+}
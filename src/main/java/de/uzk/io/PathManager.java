@@ -28,9 +28,12 @@ import static de.uzk.Main.*;
  *  │
  *  ├── projects/
  *  │   └── &lt;ProjektName&gt;/
+ *  │       ├── pyramid/
  *  │       ├── snapshots/
  *  │       ├── config.json
- *  │       └── markers.json
+ *  │       ├── markers.json
+ *  │       ├── thumbnails.bin
+ *  │       └── volume.4dv
  * </pre>
  *
  * <p>
@@ -55,12 +58,15 @@ public final class PathManager {
     // ---- Pfade für das Projektverzeichnis ----
     public static final Path CONFIG_FILE_NAME = Path.of("config.json");
     public static final Path MARKERS_FILE_NAME = Path.of("markers.json");
+    public static final Path THUMBNAILS_FILE_NAME = Path.of("thumbnails.bin");
+    public static final Path VOLUME_FILE_NAME = Path.of("volume.4dv");
     // ---- Pfade für das Appverzeichnis ----
     private static final Path APP_DIRECTORY = Path.of("4D_Viewer");
     private static final Path CONFIG_DIRECTORY = Path.of(".config");
     private static final Path LOGS_DIRECTORY = Path.of(".logs");
     private static final Path PROJECTS_DIRECTORY = Path.of("projects");
     private static final Path SNAPSHOTS_DIRECTORY = Path.of("snapshots");
+    private static final Path PYRAMID_DIRECTORY = Path.of("pyramid");
     public static final Path DEFAULT_SNAPSHOTS_DIRECTORY = APP_DIRECTORY.resolve(SNAPSHOTS_DIRECTORY);
 
     // Statische Initialisierung
@@ -114,6 +120,12 @@ public final class PathManager {
         return projectPath;
     }
 
+    public static Path getProjectPyramidDirectory() {
+        Path projectPyramidDirectory = getProjectDirectory().resolve(PYRAMID_DIRECTORY);
+        createIfNotExist(projectPyramidDirectory);
+        return projectPyramidDirectory;
+    }
+
     public static Path getProjectSnapshotsDirectory() {
         Path projectName = getProjectDirectory().getFileName();
         Path projectSnapshotsDirectory = settings.getScreenshotDirectory().resolve(projectName);
@@ -211,6 +223,7 @@ public final class PathManager {
         else if (Objects.equals(directoryName, LOGS_DIRECTORY.getFileName().toString())) return "logs";
         else if (Objects.equals(directoryName, PROJECTS_DIRECTORY.getFileName().toString())) return "projects";
         else if (Objects.equals(directoryName, SNAPSHOTS_DIRECTORY.getFileName().toString())) return "snapshots";
+        else if (Objects.equals(directoryName, PYRAMID_DIRECTORY.getFileName().toString())) return "pyramid";
         else {
             if (workspace.getImagesDirectory() != null) {
                 String workspaceDirectoryName = workspace.getImagesDirectory().getFileName().toString();
@@ -0,0 +1,353 @@
+package de.uzk.io;
+
+import de.uzk.image.DecodeTarget;
+import de.uzk.image.DecodedFrame;
+import de.uzk.image.ImageFile;
+import de.uzk.utils.GraphicsUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static de.uzk.Main.logger;
+
+/**
+ * Verwaltet eine Bildpyramide je Bild im Projektverzeichnis, damit sehr große Bilder unabhängig von ihrer
+ * Größe in konstanter Zeit dargestellt werden können.
+ * <p>
+ * Für jedes Bild werden mehrere, jeweils um den Faktor 2 verkleinerte Stufen erzeugt und in Kacheln fester
+ * Größe zerlegt. Beim Anzeigen werden dann nur die Kacheln der zum Zoom passenden Stufe gelesen, die im
+ * sichtbaren Ausschnitt liegen. Die volle Auflösung (Stufe 0) wird nicht gespeichert, sondern wie bei kleinen
+ * Bildern als Ausschnitt direkt aus der Originaldatei gelesen.
+ * <p>
+ * Struktur im Projektverzeichnis:
+ * <pre>
+ *  pyramid/
+ *  └── &lt;Dateiname&gt;/
+ *      ├── index.properties
+ *      ├── 1/
+ *      │   ├── 0_0.png
+ *      │   └── ...
+ *      └── 2/
+ *          └── ...
+ * </pre>
+ * Die Pyramiden werden nach dem Laden eines Projekts im Hintergrund erzeugt. Eine Pyramide ist nur gültig,
+ * solange Größe und Änderungsdatum der Originaldatei mit den Angaben in der <code>index.properties</code>
+ * übereinstimmen; andernfalls wird sie neu erzeugt und bis dahin direkt aus der Originaldatei dekodiert.
+ * Das Ergebnis dieser Prüfung wird je Bild im Speicher gehalten, sodass beim Bildwechsel keine Dateien
+ * geprüft werden müssen.
+ *
+ * @see PathManager#getProjectPyramidDirectory()
+ */
+public class PyramidStore {
+    // Kantenlänge einer Kachel in Pixeln
+    public static final int TILE_SIZE = 256;
+    // Kleinere Bilder werden direkt dekodiert; eine Pyramide lohnt sich erst ab dieser Kantenlänge
+    public static final int MIN_PYRAMID_SIZE = 2048;
+    private static final String INDEX_FILE_NAME = "index.properties";
+    private static final String TILE_FORMAT = "png";
+    // Aufbau der Pyramiden; ältere Pyramiden werden neu erzeugt
+    private static final int FORMAT_VERSION = 2;
+    // Ein gemeinsamer Hintergrund-Thread für alle Instanzen
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PyramidBuilder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // Bereits geprüfte Indizes (auch fehlende bzw. ungültige), damit nicht bei jedem Bildwechsel die
+    // index.properties gelesen und die Originaldatei geprüft werden muss; der Hintergrund-Thread trägt neu
+    // erzeugte Pyramiden hier ein
+    private final Map<Path, Index> indices = new ConcurrentHashMap<>();
+    private volatile Path directory;
+    private Future<?> pending;
+    // Zuletzt dekodiertes Bild, das beim Erzeugen der nächsten Pyramide überschrieben wird (nur im Hintergrund-Thread)
+    private BufferedImage decodeBuffer;
+
+    /**
+     * Öffnet das Pyramidenverzeichnis eines Projekts und erzeugt fehlende bzw. veraltete Pyramiden im Hintergrund.
+     *
+     * @param directory  das Pyramidenverzeichnis des Projekts
+     * @param imageFiles alle Bilder des Projekts, in der Reihenfolge, in der sie erzeugt werden sollen
+     */
+    public synchronized void open(Path directory, List<ImageFile> imageFiles) {
+        close();
+        this.directory = directory;
+        pending = EXECUTOR.submit(() -> buildAll(directory, imageFiles));
+    }
+
+    /**
+     * Schließt das aktuelle Pyramidenverzeichnis und bricht eine laufende Erzeugung ab.
+     */
+    public synchronized void close() {
+        if (pending != null) pending.cancel(true);
+        pending = null;
+        directory = null;
+        indices.clear();
+    }
+
+    /**
+     * Liefert das Bild in der benötigten Auflösung. Existiert eine gültige Pyramide und wird nicht die volle
+     * Auflösung benötigt, werden nur die benötigten Kacheln gelesen, andernfalls wird direkt aus der
+     * Originaldatei dekodiert.
+     *
+     * @param imageFile das Bild
+     * @param target    die benötigte Auflösung und der sichtbare Ausschnitt
+     * @return das dekodierte Bild oder <code>null</code>, falls es nicht geladen werden konnte
+     */
+    public DecodedFrame openFrame(ImageFile imageFile, DecodeTarget target) {
+        Path directory = this.directory;
+        if (directory != null) {
+            Path pyramidDirectory = getPyramidDirectory(directory, imageFile);
+            Index index = indices.computeIfAbsent(pyramidDirectory, key -> readValidIndex(key, imageFile.getFilePath()));
+            int level = index.getLevel(target);
+            if (level > 0) {
+                try {
+                    return readTiles(pyramidDirectory, index, level, target);
+                } catch (IOException e) {
+                    logger.warn("Could not read the pyramid of the image-file '%s'.".formatted(imageFile.getFileName()));
+                    indices.put(pyramidDirectory, Index.MISSING);
+                }
+            }
+        }
+        return ImageLoader.openFrame(imageFile.getFilePath(), target);
+    }
+
+    // ========================================
+    // Lesen
+    // ========================================
+    private DecodedFrame readTiles(Path pyramidDirectory, Index index, int level, DecodeTarget target) throws IOException {
+        int subsampling = 1 << level;
+        int levelWidth = ceilDiv(index.width, subsampling);
+        int levelHeight = ceilDiv(index.height, subsampling);
+
+        // Betroffene Kacheln bestimmen
+        Rectangle region = target.getDecodeRegion(index.width, index.height);
+        int firstTileX = region.x / subsampling / TILE_SIZE;
+        int firstTileY = region.y / subsampling / TILE_SIZE;
+        int lastTileX = (ceilDiv(region.x + region.width, subsampling) - 1) / TILE_SIZE;
+        int lastTileY = (ceilDiv(region.y + region.height, subsampling) - 1) / TILE_SIZE;
+
+        int originX = firstTileX * TILE_SIZE;
+        int originY = firstTileY * TILE_SIZE;
+        int width = Math.min((lastTileX + 1) * TILE_SIZE, levelWidth) - originX;
+        int height = Math.min((lastTileY + 1) * TILE_SIZE, levelHeight) - originY;
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            // Kacheln gleicher Größe werden in dasselbe Bild dekodiert, da sie sofort übertragen werden
+            BufferedImage tile = null;
+            for (int tileY = firstTileY; tileY <= lastTileY; tileY++) {
+                for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                    tile = ImageLoader.openImage(getTilePath(pyramidDirectory, level, tileX, tileY), tile, false);
+                    if (tile == null) throw new IOException("Missing tile.");
+                    g2d.drawImage(tile, tileX * TILE_SIZE - originX, tileY * TILE_SIZE - originY, null);
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+
+        // Ausschnitt in Pixeln der Originaldatei
+        int sourceX = originX * subsampling;
+        int sourceY = originY * subsampling;
+        Rectangle sourceRegion = new Rectangle(sourceX, sourceY,
+            Math.min(index.width, (originX + width) * subsampling) - sourceX,
+            Math.min(index.height, (originY + height) * subsampling) - sourceY);
+        return new DecodedFrame(image, index.width, index.height, subsampling, sourceRegion);
+    }
+
+    private static Index readValidIndex(Path pyramidDirectory, Path sourcePath) {
+        Index index = readIndex(pyramidDirectory);
+        return index != Index.MISSING && index.matches(sourcePath) ? index : Index.MISSING;
+    }
+
+    private static Index readIndex(Path pyramidDirectory) {
+        Path indexPath = pyramidDirectory.resolve(INDEX_FILE_NAME);
+        if (!Files.isRegularFile(indexPath)) return Index.MISSING;
+
+        try (InputStream input = Files.newInputStream(indexPath)) {
+            Properties properties = new Properties();
+            properties.load(input);
+            if (!String.valueOf(FORMAT_VERSION).equals(properties.getProperty("format"))) return Index.MISSING;
+            return new Index(
+                Long.parseLong(properties.getProperty("sourceSize")),
+                Long.parseLong(properties.getProperty("sourceModified")),
+                Integer.parseInt(properties.getProperty("width")),
+                Integer.parseInt(properties.getProperty("height")),
+                Integer.parseInt(properties.getProperty("levels"))
+            );
+        } catch (IOException | RuntimeException e) {
+            return Index.MISSING;
+        }
+    }
+
+    // ========================================
+    // Erzeugen
+    // ========================================
+    private void buildAll(Path directory, List<ImageFile> imageFiles) {
+        int built = 0;
+        try {
+            for (ImageFile imageFile : imageFiles) {
+                if (Thread.currentThread().isInterrupted()) return;
+                if (!imageFile.exists()) continue;
+
+                Path pyramidDirectory = getPyramidDirectory(directory, imageFile);
+                Index index = readValidIndex(pyramidDirectory, imageFile.getFilePath());
+                if (index == Index.MISSING) {
+                    try {
+                        index = build(pyramidDirectory, imageFile.getFilePath());
+                        if (index != Index.MISSING) built++;
+                    } catch (IOException e) {
+                        logger.warn("Could not build the pyramid of the image-file '%s': %s".formatted(imageFile.getFileName(), e));
+                    }
+                }
+                if (Thread.currentThread().isInterrupted()) return;
+                indices.put(pyramidDirectory, index);
+            }
+        } finally {
+            decodeBuffer = null;
+        }
+        if (built > 0) logger.info("Built %d image pyramid(s) in '%s'.".formatted(built, directory.toAbsolutePath()));
+    }
+
+    /**
+     * Erzeugt die Pyramide eines Bildes.
+     *
+     * @return der Index der Pyramide oder {@link Index#MISSING}, falls keine Pyramide erzeugt wurde
+     */
+    private Index build(Path pyramidDirectory, Path sourcePath) throws IOException {
+        // Kleine Bilder werden weiterhin direkt dekodiert
+        Dimension size = ImageLoader.readImageSize(sourcePath);
+        if (size == null || Math.max(size.width, size.height) < MIN_PYRAMID_SIZE) return Index.MISSING;
+
+        // Größe und Änderungsdatum vor dem Dekodieren merken, damit eine zwischenzeitliche Änderung auffällt
+        long sourceSize = Files.size(sourcePath);
+        long sourceModified = Files.getLastModifiedTime(sourcePath).toMillis();
+        BufferedImage source = ImageLoader.openImage(sourcePath, decodeBuffer, false);
+        if (source == null) return Index.MISSING;
+        decodeBuffer = source;
+
+        // Veraltete Pyramide entfernen; der Index wird zuletzt geschrieben, damit halbfertige Pyramiden ungültig sind
+        deleteRecursively(pyramidDirectory);
+        Files.createDirectories(pyramidDirectory);
+
+        // Stufe 0 entspricht der Originaldatei und wird nicht geschrieben
+        int levels = 1;
+        BufferedImage level = source;
+        do {
+            if (Thread.currentThread().isInterrupted()) return Index.MISSING;
+            level = halve(level);
+            writeTiles(pyramidDirectory, levels++, level);
+        } while (Math.max(level.getWidth(), level.getHeight()) > TILE_SIZE);
+
+        Properties properties = new Properties();
+        properties.setProperty("format", String.valueOf(FORMAT_VERSION));
+        properties.setProperty("sourceSize", String.valueOf(sourceSize));
+        properties.setProperty("sourceModified", String.valueOf(sourceModified));
+        properties.setProperty("width", String.valueOf(size.width));
+        properties.setProperty("height", String.valueOf(size.height));
+        properties.setProperty("levels", String.valueOf(levels));
+        try (OutputStream output = Files.newOutputStream(pyramidDirectory.resolve(INDEX_FILE_NAME))) {
+            properties.store(output, sourcePath.getFileName().toString());
+        }
+        return new Index(sourceSize, sourceModified, size.width, size.height, levels);
+    }
+
+    private static void writeTiles(Path pyramidDirectory, int level, BufferedImage image) throws IOException {
+        Files.createDirectories(pyramidDirectory.resolve(String.valueOf(level)));
+        for (int y = 0; y < image.getHeight(); y += TILE_SIZE) {
+            for (int x = 0; x < image.getWidth(); x += TILE_SIZE) {
+                int width = Math.min(TILE_SIZE, image.getWidth() - x);
+                int height = Math.min(TILE_SIZE, image.getHeight() - y);
+                BufferedImage tile = image.getSubimage(x, y, width, height);
+                ImageIO.write(tile, TILE_FORMAT, getTilePath(pyramidDirectory, level, x / TILE_SIZE, y / TILE_SIZE).toFile());
+            }
+        }
+    }
+
+    private static BufferedImage halve(BufferedImage image) {
+        int width = ceilDiv(image.getWidth(), 2);
+        int height = ceilDiv(image.getHeight(), 2);
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(result.getGraphics());
+        g2d.drawImage(image, 0, 0, width, height, null);
+        g2d.dispose();
+        return result;
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private static Path getPyramidDirectory(Path directory, ImageFile imageFile) {
+        return directory.resolve(imageFile.getFileName());
+    }
+
+    private static Path getTilePath(Path pyramidDirectory, int level, int tileX, int tileY) {
+        return pyramidDirectory.resolve(String.valueOf(level)).resolve("%d_%d.%s".formatted(tileX, tileY, TILE_FORMAT));
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) return;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static final class Index {
+        private static final Index MISSING = new Index(-1, -1, 0, 0, 0);
+        private final long sourceSize;
+        private final long sourceModified;
+        private final int width;
+        private final int height;
+        private final int levels;
+
+        private Index(long sourceSize, long sourceModified, int width, int height, int levels) {
+            this.sourceSize = sourceSize;
+            this.sourceModified = sourceModified;
+            this.width = width;
+            this.height = height;
+            this.levels = levels;
+        }
+
+        /**
+         * @return die gröbste Stufe, die für das Ziel noch fein genug ist; 0, falls direkt aus der
+         * Originaldatei dekodiert werden muss
+         */
+        private int getLevel(DecodeTarget target) {
+            if (levels <= 1) return 0;
+            int maxSubsampling = target.getSubsampling(width, height);
+            return Math.min(levels - 1, 31 - Integer.numberOfLeadingZeros(maxSubsampling));
+        }
+
+        private boolean matches(Path sourcePath) {
+            try {
+                return Files.size(sourcePath) == sourceSize &&
+                    Files.getLastModifiedTime(sourcePath).toMillis() == sourceModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
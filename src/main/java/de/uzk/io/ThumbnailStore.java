@@ -0,0 +1,228 @@
+package de.uzk.io;
+
+import de.uzk.image.DecodeTarget;
+import de.uzk.image.DecodedFrame;
+import de.uzk.image.ImageFile;
+import de.uzk.image.ImageFileType;
+import de.uzk.utils.GraphicsUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.uzk.Main.logger;
+
+/**
+ * Verwaltet kleine Vorschaubilder aller Bilder eines Projekts, z.B. für Vorschauen beim Scrollen oder
+ * Übersichten.
+ * <p>
+ * Alle Vorschaubilder eines Projekts liegen JPEG-komprimiert in einer einzigen Datei im Projektverzeichnis
+ * (siehe {@link PathManager#THUMBNAILS_FILE_NAME}), die beim Öffnen vollständig in den Speicher gelesen wird.
+ * Fehlende Vorschaubilder werden im Hintergrund erzeugt. Beim erneuten Öffnen werden nur Vorschaubilder von
+ * Dateien neu erzeugt, deren Größe oder Änderungsdatum sich geändert hat.
+ */
+public class ThumbnailStore {
+    // Längste Kante eines Vorschaubildes in Pixeln
+    public static final int THUMBNAIL_SIZE = 128;
+    private static final int FILE_MAGIC = 0x34445448; // "4DTH"
+    private static final int FILE_VERSION = 1;
+    private static final String THUMBNAIL_FORMAT = "jpg";
+    // Nach so vielen neuen Vorschaubildern wird die Datei zwischengespeichert
+    private static final int SAVE_INTERVAL = 64;
+    // Ein gemeinsamer Hintergrund-Thread für alle Instanzen
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ThumbnailBuilder");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // Schlüssel ist der Dateiname; die Vorschaubilder liegen komprimiert im Speicher.
+    // Jedes Öffnen erzeugt eine neue Map, damit ein abgebrochener Auftrag das neue Projekt nicht verändert.
+    private volatile Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private Future<?> pending;
+
+    /**
+     * Liest die Vorschaubilder eines Projekts und erzeugt fehlende bzw. veraltete im Hintergrund.
+     *
+     * @param file       die Datei, in der die Vorschaubilder gespeichert werden
+     * @param imageFiles alle Bilder des Projekts
+     */
+    public synchronized void open(Path file, List<ImageFile> imageFiles) {
+        close();
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        this.entries = entries;
+        pending = EXECUTOR.submit(() -> {
+            read(file, entries);
+            buildAll(file, imageFiles, entries);
+        });
+    }
+
+    /**
+     * Bricht eine laufende Erzeugung ab und verwirft alle Vorschaubilder im Speicher.
+     */
+    public synchronized void close() {
+        if (pending != null) pending.cancel(true);
+        pending = null;
+        entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param imageFile das Bild
+     * @return das Vorschaubild oder <code>null</code>, falls es (noch) nicht existiert
+     */
+    public BufferedImage getThumbnail(ImageFile imageFile) {
+        Entry entry = entries.get(imageFile.getFileName());
+        if (entry == null) return null;
+        return ImageLoader.openImage(entry.data, ImageFileType.JPEG);
+    }
+
+    public int getThumbnailCount() {
+        return entries.size();
+    }
+
+    // ========================================
+    // Erzeugen
+    // ========================================
+    private static void buildAll(Path file, List<ImageFile> imageFiles, Map<String, Entry> entries) {
+        Set<String> fileNames = new HashSet<>();
+        int built = 0;
+
+        for (ImageFile imageFile : imageFiles) {
+            if (Thread.currentThread().isInterrupted()) break;
+            if (!imageFile.exists()) continue;
+            fileNames.add(imageFile.getFileName());
+
+            Entry entry = entries.get(imageFile.getFileName());
+            if (entry != null && entry.matches(imageFile.getFilePath())) continue;
+
+            try {
+                entry = build(imageFile.getFilePath());
+            } catch (IOException e) {
+                logger.warn("Could not build the thumbnail of the image-file '%s': %s".formatted(imageFile.getFileName(), e));
+                continue;
+            }
+            if (entry == null) continue;
+
+            entries.put(imageFile.getFileName(), entry);
+            if (++built % SAVE_INTERVAL == 0) write(file, entries);
+        }
+
+        // Vorschaubilder von Dateien, die nicht mehr zum Projekt gehören, entfernen
+        boolean removed = !Thread.currentThread().isInterrupted() && entries.keySet().retainAll(fileNames);
+        if (built > 0 || removed) {
+            write(file, entries);
+            logger.info("Built %d thumbnail(s) in '%s'.".formatted(built, file.toAbsolutePath()));
+        }
+    }
+
+    private static Entry build(Path sourcePath) throws IOException {
+        // Größe und Änderungsdatum vor dem Dekodieren merken, damit eine zwischenzeitliche Änderung auffällt
+        long sourceSize = Files.size(sourcePath);
+        long sourceModified = Files.getLastModifiedTime(sourcePath).toMillis();
+
+        // Nur so fein dekodieren, wie es für das Vorschaubild nötig ist
+        DecodeTarget target = new DecodeTarget(new Dimension(THUMBNAIL_SIZE, THUMBNAIL_SIZE), 1);
+        DecodedFrame frame = ImageLoader.openFrame(sourcePath, target);
+        if (frame == null) return null;
+
+        BufferedImage image = frame.getImage();
+        double scale = Math.min(1, (double) THUMBNAIL_SIZE / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // JPEG unterstützt keinen Alphakanal
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = GraphicsUtils.createHighQualityGraphics2D(thumbnail.getGraphics());
+        g2d.drawImage(image, 0, 0, width, height, null);
+        g2d.dispose();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, THUMBNAIL_FORMAT, output);
+        return new Entry(sourceSize, sourceModified, output.toByteArray());
+    }
+
+    // ========================================
+    // Lesen & Speichern
+    // ========================================
+    private static void read(Path file, Map<String, Entry> entries) {
+        if (!Files.isRegularFile(file)) return;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) return;
+            // Vorschaubilder einer anderen Größe werden neu erzeugt
+            if (input.readInt() != THUMBNAIL_SIZE) return;
+
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String fileName = input.readUTF();
+                long sourceSize = input.readLong();
+                long sourceModified = input.readLong();
+                byte[] data = new byte[input.readInt()];
+                input.readFully(data);
+                entries.put(fileName, new Entry(sourceSize, sourceModified, data));
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read the thumbnails-file '%s': %s".formatted(file.toAbsolutePath(), e));
+            entries.clear();
+        }
+    }
+
+    private static void write(Path file, Map<String, Entry> entries) {
+        // Erst in eine temporäre Datei schreiben, damit eine abgebrochene Speicherung die Datei nicht zerstört
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Map<String, Entry> snapshot = Map.copyOf(entries);
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                output.writeInt(FILE_MAGIC);
+                output.writeInt(FILE_VERSION);
+                output.writeInt(THUMBNAIL_SIZE);
+                output.writeInt(snapshot.size());
+                for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+                    Entry entry = mapEntry.getValue();
+                    output.writeUTF(mapEntry.getKey());
+                    output.writeLong(entry.sourceSize);
+                    output.writeLong(entry.sourceModified);
+                    output.writeInt(entry.data.length);
+                    output.write(entry.data);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not write in the thumbnails-file '%s': %s".formatted(file.toAbsolutePath(), e));
+        }
+    }
+
+    private static final class Entry {
+        private final long sourceSize;
+        private final long sourceModified;
+        private final byte[] data;
+
+        private Entry(long sourceSize, long sourceModified, byte[] data) {
+            this.sourceSize = sourceSize;
+            this.sourceModified = sourceModified;
+            this.data = data;
+        }
+
+        private boolean matches(Path sourcePath) {
+            try {
+                return Files.size(sourcePath) == sourceSize &&
+                    Files.getLastModifiedTime(sourcePath).toMillis() == sourceModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
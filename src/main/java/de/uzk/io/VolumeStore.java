@@ -0,0 +1,383 @@
+package de.uzk.io;
+
+import de.uzk.image.DecodeTarget;
+import de.uzk.image.DecodedFrame;
+import de.uzk.image.ImageFile;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static de.uzk.Main.logger;
+
+/**
+ * Verwaltet eine Volumendatei, in der alle Bilder eines Projekts unkomprimiert und zusammenhängend abgelegt sind.
+ * <p>
+ * Die Datei wird beim Öffnen einmalig über {@link FileChannel#map} abgebildet (in Abschnitten von höchstens 2 GB,
+ * die jeweils ganze Bilder enthalten). Ein Bildwechsel ist damit nur noch ein Indexzugriff in die Abbildung und
+ * ein Kopieren der Pixel des benötigten Ausschnitts in der benötigten Auflösung, ganz ohne Dekodieren.
+ * Die Volumendatei wird auf Wunsch des Nutzers erzeugt (siehe {@link #build}) und beim Laden eines Projekts
+ * automatisch geöffnet, falls sie existiert.
+ * <p>
+ * Aufbau der Datei (Big Endian):
+ * <pre>
+ *  Kopf            magic, version, width, height, pixelType, times, levels, reserved (je int)
+ *  Bildtabelle     je Bild (Zeit, Ebene): Größe und Änderungsdatum der Originaldatei (je long)
+ *  Pixeldaten      ab DATA_ALIGNMENT ausgerichtet; je Bild width × height Pixel als 0x00RRGGBB (int)
+ * </pre>
+ * Ein Bild wird nur aus der Volumendatei gelesen, wenn Größe und Änderungsdatum seiner Originaldatei beim Öffnen
+ * mit der Bildtabelle übereinstimmten.
+ */
+public class VolumeStore {
+    private static final int FILE_MAGIC = 0x3444564C; // "4DVL"
+    private static final int FILE_VERSION = 1;
+    private static final int PIXEL_TYPE_INT_RGB = 1;
+    private static final int HEADER_SIZE = 8 * Integer.BYTES;
+    private static final int FRAME_ENTRY_SIZE = 2 * Long.BYTES;
+    private static final int DATA_ALIGNMENT = 4096;
+    // Ein einzelnes Bild (und damit ein Abschnitt der Abbildung) darf höchstens so groß sein, wie eine Abbildung es zulässt
+    private static final long MAX_FRAME_BYTES = Integer.MAX_VALUE;
+    // Die aktuell geöffnete Volumendatei; wird beim Lesen nur einmal gelesen, daher ohne Sperre
+    private volatile Volume volume;
+
+    /**
+     * Öffnet eine bestehende Volumendatei, sofern sie zum Projekt passt. Dabei wird für jedes Bild einmalig
+     * geprüft, ob Größe und Änderungsdatum seiner Originaldatei noch mit der Bildtabelle übereinstimmen.
+     *
+     * @param file       die Volumendatei
+     * @param imageFiles alle Bilder des Projekts (zeilenweise nach Zeit, dann Ebene)
+     * @param times      Anzahl der Zeitpunkte des Projekts
+     * @param levels     Anzahl der Ebenen des Projekts
+     * @return <code>true</code>, wenn die Volumendatei geöffnet wurde
+     */
+    public synchronized boolean open(Path file, List<ImageFile> imageFiles, int times, int levels) {
+        close();
+        if (!Files.isRegularFile(file) || imageFiles.size() != times * levels) return false;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+            boolean valid = header.getInt() == FILE_MAGIC && header.getInt() == FILE_VERSION;
+            int width = header.getInt();
+            int height = header.getInt();
+            valid &= header.getInt() == PIXEL_TYPE_INT_RGB;
+            valid &= header.getInt() == times && header.getInt() == levels;
+
+            int frameCount = imageFiles.size();
+            long frameBytes = getFrameBytes(width, height);
+            long dataOffset = getDataOffset(frameCount);
+            valid &= frameBytes > 0 && frameBytes <= MAX_FRAME_BYTES;
+            valid &= channel.size() == dataOffset + frameCount * frameBytes;
+            if (!valid) {
+                logger.warn("The volume-file '%s' does not match the project.".formatted(file.toAbsolutePath()));
+                return false;
+            }
+
+            ByteBuffer frameTable = ByteBuffer.allocate(frameCount * FRAME_ENTRY_SIZE);
+            readFully(channel, frameTable, HEADER_SIZE);
+            BitSet validFrames = validateFrames(frameTable, imageFiles);
+
+            // Abschnitte von höchstens MAX_FRAME_BYTES, die jeweils ganze Bilder enthalten; die Abbildungen bleiben
+            // auch nach dem Schließen des Kanals gültig
+            int framesPerChunk = (int) Math.min(frameCount, MAX_FRAME_BYTES / frameBytes);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(frameCount + framesPerChunk - 1) / framesPerChunk];
+            for (int i = 0; i < chunks.length; i++) {
+                int chunkFrames = Math.min(framesPerChunk, frameCount - i * framesPerChunk);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset + i * framesPerChunk * frameBytes, chunkFrames * frameBytes);
+            }
+
+            volume = new Volume(chunks, framesPerChunk, validFrames, width, height, levels);
+            logger.info("Opened the volume-file '%s' (%d of %d images up to date).".formatted(
+                file.toAbsolutePath(), validFrames.cardinality(), frameCount));
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not open the volume-file '%s': %s".formatted(file.toAbsolutePath(), e));
+            return false;
+        }
+    }
+
+    /**
+     * Schließt die Volumendatei. Die Abbildungen werden freigegeben, sobald kein Lesezugriff mehr läuft, damit
+     * die Datei anschließend ersetzt werden kann.
+     */
+    public synchronized void close() {
+        Volume volume = this.volume;
+        this.volume = null;
+        if (volume != null) volume.release();
+    }
+
+    public boolean isOpen() {
+        return volume != null;
+    }
+
+    /**
+     * Liefert ein Bild aus der Abbildung der Volumendatei. Es werden nur die Pixel des benötigten Ausschnitts in
+     * der benötigten Auflösung in ein {@link BufferedImage#TYPE_INT_RGB}-Bild kopiert, damit Java2D es
+     * beschleunigt zeichnen kann. Die Methode kann von mehreren Threads gleichzeitig aufgerufen werden.
+     *
+     * @param imageFile das Bild
+     * @param target    die benötigte Auflösung und der sichtbare Ausschnitt
+     * @return das Bild oder <code>null</code>, falls keine (aktuelle) Volumendatei vorliegt
+     */
+    public DecodedFrame openFrame(ImageFile imageFile, DecodeTarget target) {
+        Volume volume = this.volume;
+        if (volume == null || !volume.acquire()) return null;
+
+        try {
+            int index = imageFile.getTime() * volume.levels + imageFile.getLevel();
+            if (imageFile.getLevel() >= volume.levels || !volume.validFrames.get(index)) return null;
+            return volume.readFrame(index, target);
+        } finally {
+            volume.release();
+        }
+    }
+
+    /**
+     * Schätzt die Größe der Volumendatei für die gegebenen Bilder ab.
+     *
+     * @param imageFiles alle Bilder des Projekts (zeilenweise nach Zeit, dann Ebene)
+     * @return Größe in Bytes oder <code>-1</code>, falls kein Bild gelesen werden konnte
+     */
+    public static long estimateSize(List<ImageFile> imageFiles) {
+        Dimension size = getFrameSize(imageFiles);
+        if (size == null) return -1;
+        return getDataOffset(imageFiles.size()) + imageFiles.size() * getFrameBytes(size.width, size.height);
+    }
+
+    /**
+     * Erzeugt die Volumendatei für die gegebenen Bilder. Die Datei wird zunächst unter einem temporären Namen
+     * geschrieben und erst nach vollständiger Erzeugung umbenannt. Bilder, die fehlen oder eine abweichende Größe
+     * haben, werden weiterhin aus der Originaldatei dekodiert.
+     *
+     * @param file       die Volumendatei
+     * @param imageFiles alle Bilder des Projekts (zeilenweise nach Zeit, dann Ebene)
+     * @param times      Anzahl der Zeitpunkte des Projekts
+     * @param levels     Anzahl der Ebenen des Projekts
+     * @param progress   wird nach jedem Bild mit der Anzahl der verarbeiteten Bilder aufgerufen
+     * @throws IOException          falls die Datei nicht geschrieben werden konnte
+     * @throws InterruptedException falls die Erzeugung abgebrochen wurde
+     */
+    public static void build(Path file, List<ImageFile> imageFiles, int times, int levels, IntConsumer progress) throws IOException, InterruptedException {
+        if (imageFiles.size() != times * levels) throw new IllegalArgumentException("Image files do not match the matrix size.");
+        Dimension size = getFrameSize(imageFiles);
+        if (size == null) throw new IOException("No readable image found.");
+
+        long frameBytes = getFrameBytes(size.width, size.height);
+        if (frameBytes > MAX_FRAME_BYTES) throw new IOException("The images are too large for a volume-file.");
+
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        long dataOffset = getDataOffset(imageFiles.size());
+        ByteBuffer frameTable = ByteBuffer.allocate(imageFiles.size() * FRAME_ENTRY_SIZE);
+        // Puffer für ein Bild; wird für alle Bilder wiederverwendet
+        int[] pixels = new int[size.width * size.height];
+        ByteBuffer frameBuffer = ByteBuffer.allocateDirect((int) frameBytes);
+        BufferedImage decodeBuffer = null;
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int index = 0; index < imageFiles.size(); index++) {
+                if (Thread.currentThread().isInterrupted()) throw new InterruptedException();
+
+                Path sourcePath = imageFiles.get(index).getFilePath();
+                long sourceSize = -1;
+                long sourceModified = -1;
+                BufferedImage image = null;
+                if (Files.isRegularFile(sourcePath)) {
+                    sourceSize = Files.size(sourcePath);
+                    sourceModified = Files.getLastModifiedTime(sourcePath).toMillis();
+                    // Das zuletzt dekodierte Bild wird nicht mehr benötigt und kann überschrieben werden
+                    image = ImageLoader.openImage(sourcePath, decodeBuffer, true);
+                    if (image != null) decodeBuffer = image;
+                }
+
+                // Fehlende Bilder oder Bilder mit abweichender Größe werden als ungültig markiert
+                if (image != null && image.getWidth() == size.width && image.getHeight() == size.height) {
+                    image.getRGB(0, 0, size.width, size.height, pixels, 0, size.width);
+                    frameTable.putLong(sourceSize).putLong(sourceModified);
+                } else {
+                    Arrays.fill(pixels, 0);
+                    frameTable.putLong(-1).putLong(-1);
+                }
+                frameBuffer.clear();
+                frameBuffer.asIntBuffer().put(pixels);
+                writeFully(channel, frameBuffer, dataOffset + index * frameBytes);
+                progress.accept(index + 1);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(size.width).putInt(size.height)
+                .putInt(PIXEL_TYPE_INT_RGB).putInt(times).putInt(levels).putInt(0);
+            writeFully(channel, header.flip(), 0);
+            writeFully(channel, frameTable.flip(), HEADER_SIZE);
+        } catch (ClosedByInterruptException e) {
+            // Der Kanal wurde durch das Abbrechen geschlossen
+            Files.deleteIfExists(tempFile);
+            throw new InterruptedException();
+        } catch (IOException | InterruptedException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private static BitSet validateFrames(ByteBuffer frameTable, List<ImageFile> imageFiles) {
+        BitSet validFrames = new BitSet(imageFiles.size());
+        for (int index = 0; index < imageFiles.size(); index++) {
+            long sourceSize = frameTable.getLong(index * FRAME_ENTRY_SIZE);
+            long sourceModified = frameTable.getLong(index * FRAME_ENTRY_SIZE + Long.BYTES);
+            if (sourceSize < 0) continue;
+
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(imageFiles.get(index).getFilePath(), BasicFileAttributes.class);
+                if (attributes.size() == sourceSize && attributes.lastModifiedTime().toMillis() == sourceModified) {
+                    validFrames.set(index);
+                }
+            } catch (IOException e) {
+                // Die Originaldatei fehlt; das Bild wird nicht aus der Volumendatei gelesen
+            }
+        }
+        return validFrames;
+    }
+
+    private static Dimension getFrameSize(List<ImageFile> imageFiles) {
+        for (ImageFile imageFile : imageFiles) {
+            if (!imageFile.exists()) continue;
+            Dimension size = ImageLoader.readImageSize(imageFile.getFilePath());
+            if (size != null) return size;
+        }
+        return null;
+    }
+
+    private static long getFrameBytes(int width, int height) {
+        return (long) width * height * Integer.BYTES;
+    }
+
+    private static long getDataOffset(long frameCount) {
+        long tableEnd = HEADER_SIZE + frameCount * FRAME_ENTRY_SIZE;
+        return (tableEnd + DATA_ALIGNMENT - 1) / DATA_ALIGNMENT * DATA_ALIGNMENT;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException();
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Eine geöffnete Volumendatei. Sie ist nach dem Öffnen unveränderlich; Lesezugriffe werden lediglich gezählt,
+     * damit die Abbildungen erst freigegeben werden, wenn kein Thread mehr aus ihnen liest.
+     */
+    private static final class Volume {
+        private final MappedByteBuffer[] chunks;
+        private final IntBuffer[] chunkPixels;
+        private final int framesPerChunk;
+        private final BitSet validFrames;
+        private final int width;
+        private final int height;
+        private final int levels;
+        // Anzahl der Nutzer: 1 für die geöffnete Datei zuzüglich laufender Lesezugriffe; 0 = freigegeben
+        private final AtomicInteger users = new AtomicInteger(1);
+
+        private Volume(MappedByteBuffer[] chunks, int framesPerChunk, BitSet validFrames, int width, int height, int levels) {
+            this.chunks = chunks;
+            this.chunkPixels = new IntBuffer[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                chunkPixels[i] = chunks[i].asIntBuffer();
+            }
+            this.framesPerChunk = framesPerChunk;
+            this.validFrames = validFrames;
+            this.width = width;
+            this.height = height;
+            this.levels = levels;
+        }
+
+        private boolean acquire() {
+            int count;
+            do {
+                count = users.get();
+                if (count == 0) return false;
+            } while (!users.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        private void release() {
+            if (users.decrementAndGet() == 0) {
+                for (MappedByteBuffer chunk : chunks) {
+                    unmap(chunk);
+                }
+            }
+        }
+
+        private DecodedFrame readFrame(int index, DecodeTarget target) {
+            int subsampling = target.getSubsampling(width, height);
+            Rectangle region = target.getDecodeRegion(width, height);
+            int imageWidth = (region.width + subsampling - 1) / subsampling;
+            int imageHeight = (region.height + subsampling - 1) / subsampling;
+
+            // Absolute Zugriffe verändern den Puffer nicht und sind daher ohne Sperre möglich
+            IntBuffer frame = chunkPixels[index / framesPerChunk];
+            int frameOffset = index % framesPerChunk * width * height;
+
+            // Ein neues Bild je Aufruf, da der FrameCache die Bilder ohne Kopie ablegt und sie unverändert bleiben müssen
+            BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            int[] row = subsampling > 1 ? new int[region.width] : null;
+            for (int y = 0; y < imageHeight; y++) {
+                int rowOffset = frameOffset + (region.y + y * subsampling) * width + region.x;
+                if (row == null) {
+                    frame.get(rowOffset, pixels, y * imageWidth, imageWidth);
+                } else {
+                    frame.get(rowOffset, row, 0, region.width);
+                    for (int x = 0; x < imageWidth; x++) {
+                        pixels[y * imageWidth + x] = row[x * subsampling];
+                    }
+                }
+            }
+            return new DecodedFrame(image, width, height, subsampling, region);
+        }
+
+        /**
+         * Gibt eine Abbildung sofort frei, anstatt auf den Garbage Collector zu warten. Unter Windows lässt sich
+         * eine abgebildete Datei sonst weder ersetzen noch löschen.
+         */
+        private static void unmap(MappedByteBuffer buffer) {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(field.get(null), buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.warn("Could not unmap the volume-file: " + e);
+            }
+        }
+    }
+}
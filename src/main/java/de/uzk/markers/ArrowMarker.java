@@ -111,6 +111,15 @@ public class ArrowMarker extends Marker {
         return new Rectangle2D.Double(base.getX(), base.getY(), metrics.stringWidth(label), metrics.getHeight());
     }
 
+    @Override
+    public Rectangle2D getRepaintBounds(Graphics g2d) {
+        Rectangle2D bounds = super.getRepaintBounds(g2d);
+        // Die Spitze ist ein Zehntel so lang wie der Pfeil (siehe draw)
+        double length = head.distance(base) / 10;
+        addToBounds(bounds, head, length + LINE_WIDTH);
+        return bounds;
+    }
+
     @Override
     public Marker copy() {
         return new ArrowMarker(this);
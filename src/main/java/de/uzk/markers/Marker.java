@@ -9,6 +9,7 @@ import de.uzk.utils.NumberUtils;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY)
 @JsonSubTypes(value = {@JsonSubTypes.Type(value = ShapeMarker.class), @JsonSubTypes.Type(value = ArrowMarker.class)})
@@ -141,6 +142,32 @@ public abstract class Marker {
 
     public abstract Shape getLabelArea(Graphics g2d);
 
+    /**
+     * Liefert den Bereich, den der Marker beim Zeichnen (inklusive Linienbreite, Name und Eckpunkten) höchstens
+     * bemalt. Ändert sich der Marker, muss nur die Vereinigung des alten und neuen Bereichs neu gezeichnet werden.
+     *
+     * @param g2d wird nur für die Schriftmetriken des Namens benötigt und nicht verändert
+     * @return der Bereich in Koordinaten der Originaldatei
+     *
+     */
+    public Rectangle2D getRepaintBounds(Graphics g2d) {
+        Graphics copy = g2d.create();
+        Rectangle2D bounds = getLabelArea(copy).getBounds2D();
+        copy.dispose();
+
+        for (Point2D point : getScalePoints()) {
+            addToBounds(bounds, point, 2.0 * LINE_WIDTH);
+        }
+        return bounds;
+    }
+
+    /**
+     * Erweitert <code>bounds</code> um ein Quadrat mit dem gegebenen Abstand um <code>point</code>.
+     */
+    protected static void addToBounds(Rectangle2D bounds, Point2D point, double margin) {
+        bounds.add(new Rectangle2D.Double(point.getX() - margin, point.getY() - margin, 2 * margin, 2 * margin));
+    }
+
     public abstract Marker copy();
 
     @JsonIgnore
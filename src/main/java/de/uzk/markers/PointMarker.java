@@ -76,6 +76,14 @@ public class PointMarker extends RotatableMarker {
 
     }
 
+    @Override
+    public Rectangle2D getRepaintBounds(Graphics g2d) {
+        Rectangle2D bounds = super.getRepaintBounds(g2d);
+        // Die (gedrehte) Form reicht um höchstens SIZE über den Mittelpunkt hinaus
+        addToBounds(bounds, center, SIZE + LINE_WIDTH);
+        return bounds;
+    }
+
     @Override
     public void drawDragPoints(Graphics2D g2d) {
         if(shape == PointMarkerShape.DOT) return;
@@ -8,6 +8,7 @@ import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 
 public abstract class RotatableMarker extends Marker {
     protected int rotation;
@@ -51,6 +52,13 @@ public abstract class RotatableMarker extends Marker {
         drawRotatePoint(g2d);
     }
 
+    @Override
+    public Rectangle2D getRepaintBounds(Graphics g2d) {
+        Rectangle2D bounds = super.getRepaintBounds(g2d);
+        addToBounds(bounds, getRotatePoint(), 2.0 * LINE_WIDTH);
+        return bounds;
+    }
+
     protected void drawRotatePoint(Graphics2D g2d) {
         Point2D rotPoint = getRotatePoint();
         Point2D topCenter = getRotationTransform().transform(new Point2D.Double(center.getX(), center.getY() - getHeight() / 2), null);
@@ -68,7 +68,8 @@ public class MarkerInteractionHandler extends MouseAdapter {
             imageEditor.setFocusedMarker(null);
             checkHoveringMarker(e);
         }
-        imageEditor.updateImage(false);
+        // Es ändert sich höchstens, welcher Marker fokussiert ist
+        imageEditor.updateDragPoints();
     }
 
     @Override
@@ -112,13 +113,13 @@ public class MarkerInteractionHandler extends MouseAdapter {
         Point actual = getActualPoint(e.getPoint());
         if (editMode == EditMode.MOVE) {
             selectedMarker.handleMove(actual);
-            imageEditor.updateImage(false);
+            imageEditor.updateMarker(selectedMarker.getCurrentFocused());
         } else if (editMode == EditMode.RESIZE) {
             selectedMarker.handleResize(actual);
-            imageEditor.updateImage(false);
+            imageEditor.updateMarker(selectedMarker.getCurrentFocused());
         } else if (editMode == EditMode.ROTATE) {
             selectedMarker.handleRotate(actual);
-            imageEditor.updateImage(false);
+            imageEditor.updateMarker(selectedMarker.getCurrentFocused());
         }
     }
     //endregion
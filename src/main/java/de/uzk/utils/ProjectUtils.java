@@ -3,18 +3,25 @@ package de.uzk.utils;
 import de.uzk.action.ActionType;
 import de.uzk.config.History;
 import de.uzk.gui.Gui;
+import de.uzk.gui.dialogs.DialogBuildVolume;
 import de.uzk.gui.dialogs.DialogDirectoryChooser;
 import de.uzk.gui.dialogs.DialogLoadingImages;
 import de.uzk.image.Axis;
+import de.uzk.image.ImageFile;
 import de.uzk.image.ImageFileType;
 import de.uzk.image.LoadingResult;
+import de.uzk.io.PathManager;
+import de.uzk.io.VolumeStore;
 
 import javax.swing.*;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static de.uzk.Main.logger;
+import static de.uzk.Main.workspace;
 import static de.uzk.config.LanguageHandler.getWord;
 
 /**
@@ -129,9 +136,60 @@ public final class ProjectUtils {
         }
     }
 
+    /**
+     * Wandelt alle Bilder des aktuell geladenen Projekts in eine Volumendatei um, aus der die Bilder anschließend
+     * ohne Dekodieren gelesen werden (siehe {@link VolumeStore}).
+     *
+     * <p>
+     * Vorab wird der Benutzer über die Größe der Datei informiert und um Bestätigung gebeten. Reicht der freie
+     * Speicherplatz nicht aus, wird der Vorgang mit einer Fehlermeldung abgebrochen.
+     *
+     * @param gui Die Gui-Instanz, über die Dialoge angezeigt werden
+     */
+    public static void buildVolume(Gui gui) {
+        if (!workspace.isLoaded()) return;
+
+        List<ImageFile> imageFiles = workspace.getImageFiles();
+        int times = workspace.getMaxTime() + 1;
+        int levels = workspace.getMaxLevel() + 1;
+        Path file = PathManager.resolveProjectPath(PathManager.VOLUME_FILE_NAME);
+        long sizeMB = Math.max(1, VolumeStore.estimateSize(imageFiles) >> 20);
+
+        int option = JOptionPane.showConfirmDialog(gui.getContainer(),
+            getWord("dialog.buildVolume.confirm").formatted(imageFiles.size(), sizeMB),
+            getWord("optionPane.title.confirm"),
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.QUESTION_MESSAGE
+        );
+        if (option != JOptionPane.YES_OPTION) return;
+
+        try {
+            if (Files.getFileStore(file.getParent()).getUsableSpace() >> 20 < sizeMB) {
+                showErrorMessage(gui, getWord("dialog.buildVolume.notEnoughSpace").formatted(sizeMB));
+                return;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not determine the free disk space: " + e);
+        }
+
+        // Eine bestehende Volumendatei wird ersetzt; bis dahin werden die Bilder dekodiert
+        workspace.getVolumeStore().close();
+        new DialogBuildVolume(gui.getContainer()).build(file, imageFiles, times, levels);
+        workspace.getVolumeStore().open(file, imageFiles, times, levels);
+    }
+
     // ========================================
     // Hilfsmethoden
     // ========================================
+    private static void showErrorMessage(Gui gui, String message) {
+        JOptionPane.showMessageDialog(
+            gui.getContainer(),
+            message,
+            getWord("optionPane.title.error"),
+            JOptionPane.ERROR_MESSAGE
+        );
+    }
+
 
     /**
      * Lädt Bilddateien aus einem angegebenen Verzeichnis und verarbeitet dabei
@@ -0,0 +1,128 @@
+import de.uzk.image.DecodeTarget;
+import de.uzk.image.DecodedFrame;
+import de.uzk.image.FrameCache;
+import de.uzk.image.ImageFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameCacheTest {
+
+    // 10 x 10 Pixel, TYPE_INT_ARGB → 400 Bytes pro Bild
+    private static final long FRAME_BYTES = 400;
+
+    private FrameCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FrameCache(3 * FRAME_BYTES);
+    }
+
+    @Test
+    void testSizeOf() {
+        assertEquals(FRAME_BYTES, FrameCache.sizeOf(createFrame(1).getImage()), "Size of an ARGB image is wrong");
+    }
+
+    @Test
+    void testGetReturnsCachedImage() {
+        DecodedFrame frame = createFrame(1);
+        cache.put(createImageFile(0, 0), frame);
+
+        assertSame(frame, cache.get(createImageFile(0, 0)), "Cached image was not returned");
+        assertNull(cache.get(createImageFile(0, 1)), "Unknown image was returned");
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        cache.put(createImageFile(0, 0), createFrame(1));
+        cache.put(createImageFile(0, 1), createFrame(1));
+        cache.put(createImageFile(0, 2), createFrame(1));
+
+        // (0, 0) wird verwendet, (0, 1) ist damit das älteste Bild
+        cache.get(createImageFile(0, 0));
+        cache.put(createImageFile(0, 3), createFrame(1));
+
+        assertTrue(cache.contains(createImageFile(0, 0)), "Recently used image was evicted");
+        assertFalse(cache.contains(createImageFile(0, 1)), "Least recently used image was not evicted");
+        assertEquals(3 * FRAME_BYTES, cache.getUsedBytes(), "Byte budget was not respected");
+    }
+
+    @Test
+    void testBudgetIsLimitedToHeap() {
+        cache.setMaxBytes(Long.MAX_VALUE);
+
+        assertTrue(cache.getMaxBytes() < Runtime.getRuntime().maxMemory(), "Budget exceeds the maximum heap");
+    }
+
+    @Test
+    void testShrinkingBudgetEvicts() {
+        cache.put(createImageFile(0, 0), createFrame(1));
+        cache.put(createImageFile(0, 1), createFrame(1));
+        cache.setMaxBytes(FRAME_BYTES);
+
+        assertEquals(1, cache.size(), "Cache was not shrunk to the new budget");
+        assertTrue(cache.contains(createImageFile(0, 1)), "Most recent image was evicted");
+    }
+
+    @Test
+    void testPinnedImagesAreEvictedLast() {
+        cache.pin(List.of(createImageFile(0, 0)));
+        cache.put(createImageFile(0, 0), createFrame(1));
+        cache.put(createImageFile(0, 1), createFrame(1));
+        cache.put(createImageFile(0, 2), createFrame(1));
+        cache.put(createImageFile(0, 3), createFrame(1));
+
+        assertTrue(cache.contains(createImageFile(0, 0)), "Pinned image was evicted");
+        assertFalse(cache.contains(createImageFile(0, 1)), "Least recently used unpinned image was not evicted");
+
+        // Nach dem Lösen wird (0, 0) wie jedes andere Bild verdrängt
+        cache.unpin(List.of(createImageFile(0, 0)));
+        for (int level = 4; level < 7; level++) cache.put(createImageFile(0, level), createFrame(1));
+        assertFalse(cache.contains(createImageFile(0, 0)), "Unpinned image was not evicted");
+    }
+
+    @Test
+    void testImageFromOtherProjectIsIgnored() {
+        cache.put(createImageFile(0, 0), createFrame(1));
+        ImageFile otherProject = new ImageFile(Path.of("other", "X0000L00.jpg"), 0, 0);
+
+        assertNull(cache.get(otherProject), "Image of another directory was returned");
+    }
+
+    @Test
+    void testCoarseFrameIsNotSufficientForFinerTarget() {
+        // 10 x 10 Pixel, mit Unterabtastung 2 aus einer 20 x 20 Pixel großen Datei dekodiert
+        cache.put(createImageFile(0, 0), createFrame(2));
+        DecodeTarget fineTarget = new DecodeTarget(new Dimension(20, 20), 1);
+        DecodeTarget coarseTarget = new DecodeTarget(new Dimension(10, 10), 1);
+
+        assertNull(cache.get(createImageFile(0, 0), fineTarget), "Coarse image was returned for a finer target");
+        assertNotNull(cache.get(createImageFile(0, 0), coarseTarget), "Sufficient image was not returned");
+    }
+
+    @Test
+    void testFinerFrameIsNotReplacedByCoarserFrame() {
+        // Dieselbe 20 x 20 Pixel große Datei, einmal in voller Auflösung dekodiert
+        DecodedFrame fine = new DecodedFrame(new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB), 20, 20, 1);
+        cache.setMaxBytes(8 * FRAME_BYTES);
+        cache.put(createImageFile(0, 0), fine);
+        cache.put(createImageFile(0, 0), createFrame(2));
+
+        assertSame(fine, cache.get(createImageFile(0, 0)), "Finer image was replaced by a coarser one");
+    }
+
+    private static ImageFile createImageFile(int time, int level) {
+        return new ImageFile(Path.of("images", "X%04dL%02d.jpg".formatted(time, level)), time, level);
+    }
+
+    private static DecodedFrame createFrame(int subsampling) {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        return new DecodedFrame(image, 10 * subsampling, 10 * subsampling, subsampling);
+    }
+}
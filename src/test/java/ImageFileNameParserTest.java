@@ -0,0 +1,47 @@
+import de.uzk.image.ImageFileNameParser;
+import de.uzk.image.ImageFileType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageFileNameParserTest {
+    private final ImageFileNameParser parser = new ImageFileNameParser("X", "L", ImageFileType.JPEG);
+
+    @Test
+    void testParsesTimeAndLevel() {
+        long key = parser.parse("X0012L003.jpg");
+
+        assertEquals(12, ImageFileNameParser.unpackTime(key), "Time was not parsed");
+        assertEquals(3, ImageFileNameParser.unpackLevel(key), "Level was not parsed");
+        assertNotEquals(ImageFileNameParser.NO_MATCH, parser.parse("x1l2.JPEG"), "Matching should be case-insensitive");
+    }
+
+    @Test
+    void testRejectsOtherNames() {
+        for (String fileName : new String[]{"X12L3.png", "X12L.jpg", "XL3.jpg", "prefix_X12L3.jpg", "X12L3.jpg.bak", "X1aL3.jpg"}) {
+            assertEquals(ImageFileNameParser.NO_MATCH, parser.parse(fileName), "'%s' should not match".formatted(fileName));
+        }
+    }
+
+    @Test
+    void testSeparatorsAreLiterals() {
+        ImageFileNameParser dotted = new ImageFileNameParser(".", "+", ImageFileType.PNG);
+
+        assertNotEquals(ImageFileNameParser.NO_MATCH, dotted.parse(".1+2.png"), "Separators should match literally");
+        assertEquals(ImageFileNameParser.NO_MATCH, dotted.parse("a1+2.png"), "A dot separator should not match any character");
+    }
+
+    @Test
+    void testHugeNumbersAreClamped() {
+        long key = parser.parse("X99999999999999999999L1.jpg");
+
+        assertEquals(Integer.MAX_VALUE, ImageFileNameParser.unpackTime(key), "Too large numbers should be clamped");
+        assertEquals(1, ImageFileNameParser.unpackLevel(key), "Level was not parsed");
+    }
+
+    @Test
+    void testKeysAreOrderedByTimeThenLevel() {
+        assertTrue(ImageFileNameParser.pack(1, 999) < ImageFileNameParser.pack(2, 0), "Time should take precedence");
+        assertTrue(ImageFileNameParser.pack(2, 0) < ImageFileNameParser.pack(2, 1), "Level should break ties");
+    }
+}
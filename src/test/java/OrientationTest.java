@@ -0,0 +1,66 @@
+import de.uzk.image.Orientation;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrientationTest {
+    private static final int[] ROTATIONS = {0, 90, 180, 270, -90, 450};
+
+    @Test
+    void testOnlyRightAngles() {
+        assertNotNull(Orientation.of(270, false, true), "Multiples of 90 degrees should be supported");
+        assertNull(Orientation.of(45, false, false), "Other angles should not be supported");
+        assertTrue(Orientation.of(360, false, false).isIdentity(), "A full turn should not move pixels");
+    }
+
+    @Test
+    void testMatchesGeneralTransform() {
+        for (int rotation : ROTATIONS) {
+            for (int mirror = 0; mirror < 4; mirror++) {
+                boolean mirrorX = (mirror & 1) != 0;
+                boolean mirrorY = (mirror & 2) != 0;
+                AffineTransform expected = AffineTransform.getScaleInstance(mirrorX ? -1 : 1, mirrorY ? -1 : 1);
+                expected.rotate(Math.toRadians(rotation));
+                AffineTransform actual = Orientation.of(rotation, mirrorX, mirrorY).createTransform(7, 3);
+
+                String message = "Orientation %d/%b/%b differs from the general transform".formatted(rotation, mirrorX, mirrorY);
+                assertEquals(expected.getScaleX(), actual.getScaleX(), 1e-12, message);
+                assertEquals(expected.getShearX(), actual.getShearX(), 1e-12, message);
+                assertEquals(expected.getShearY(), actual.getShearY(), 1e-12, message);
+                assertEquals(expected.getScaleY(), actual.getScaleY(), 1e-12, message);
+            }
+        }
+    }
+
+    @Test
+    void testPixelsAreRemapped() {
+        for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR}) {
+            // Groß genug, damit parallel in Streifen gearbeitet wird
+            BufferedImage source = new BufferedImage(301, 257, type);
+            for (int y = 0; y < source.getHeight(); y++) {
+                for (int x = 0; x < source.getWidth(); x++) source.setRGB(x, y, x << 12 | y);
+            }
+
+            for (int rotation : ROTATIONS) {
+                Orientation orientation = Orientation.of(rotation, true, false);
+                Dimension size = orientation.getOrientedSize(source.getWidth(), source.getHeight());
+                BufferedImage actual = orientation.apply(source, new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB));
+
+                AffineTransform transform = orientation.createTransform(source.getWidth(), source.getHeight());
+                for (int y = 0; y < source.getHeight(); y += 16) {
+                    for (int x = 0; x < source.getWidth(); x += 15) {
+                        Point2D target = transform.transform(new Point2D.Double(x + 0.5, y + 0.5), null);
+                        int expected = source.getRGB(x, y) | 0xFF000000;
+                        assertEquals(expected, actual.getRGB((int) target.getX(), (int) target.getY()),
+                            "Pixel (%d, %d) of type %d was not remapped for rotation %d".formatted(x, y, type, rotation));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import de.uzk.image.kernels.PixelKernels;
+import de.uzk.image.kernels.ScalarPixelKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vergleicht die Standard-Implementierung (mit aktivierter Vector API die vektorisierte) mit der skalaren.
+ * Die Länge ist bewusst kein Vielfaches der Vektorbreite, damit auch der Rest geprüft wird.
+ */
+class PixelKernelsTest {
+
+    private static final int LENGTH = 1003;
+    private final PixelKernels scalar = new ScalarPixelKernels();
+    private final PixelKernels kernels = PixelKernels.getDefault();
+    private final Random random = new Random(42);
+
+    @Test
+    void testApplyTables() {
+        int[] source = createPixels();
+        int[] table = new int[256];
+        for (int i = 0; i < table.length; i++) table[i] = 255 - i;
+
+        for (boolean opaque : new boolean[]{false, true}) {
+            int[] expected = new int[LENGTH + 2];
+            int[] actual = new int[LENGTH + 2];
+            scalar.applyTables(source, 1, expected, 2, LENGTH - 1, table, table, table, opaque);
+            kernels.applyTables(source, 1, actual, 2, LENGTH - 1, table, table, table, opaque);
+            assertArrayEquals(expected, actual, "Table lookup differs (opaque: %b)".formatted(opaque));
+        }
+    }
+
+    @Test
+    void testGrayConversion() {
+        int[] source = createPixels();
+        byte[] expectedGray = new byte[LENGTH];
+        byte[] actualGray = new byte[LENGTH];
+        scalar.toGray(source, 0, expectedGray, 0, LENGTH);
+        kernels.toGray(source, 0, actualGray, 0, LENGTH);
+        assertArrayEquals(expectedGray, actualGray, "Gray conversion differs");
+
+        int[] expected = new int[LENGTH];
+        int[] actual = new int[LENGTH];
+        scalar.fromGray(expectedGray, 0, expected, 0, LENGTH);
+        kernels.fromGray(actualGray, 0, actual, 0, LENGTH);
+        assertArrayEquals(expected, actual, "Conversion from gray differs");
+        assertEquals(0xFFFFFFFF, convertWhite(), "White should stay white");
+    }
+
+    @Test
+    void testMaxProjectionAndDifference() {
+        int[] first = createPixels();
+        int[] second = createPixels();
+
+        int[] expected = first.clone();
+        int[] actual = first.clone();
+        scalar.maxProjection(expected, second, 0, LENGTH);
+        kernels.maxProjection(actual, second, 0, LENGTH);
+        assertArrayEquals(expected, actual, "Max projection differs");
+
+        scalar.absDifference(first, second, expected, 0, LENGTH);
+        kernels.absDifference(first, second, actual, 0, LENGTH);
+        assertArrayEquals(expected, actual, "Absolute difference differs");
+    }
+
+    private int convertWhite() {
+        byte[] gray = new byte[1];
+        int[] argb = new int[1];
+        kernels.toGray(new int[]{0xFFFFFFFF}, 0, gray, 0, 1);
+        kernels.fromGray(gray, 0, argb, 0, 1);
+        return argb[0];
+    }
+
+    private int[] createPixels() {
+        int[] pixels = new int[LENGTH];
+        for (int i = 0; i < pixels.length; i++) pixels[i] = random.nextInt();
+        return pixels;
+    }
+}
@@ -0,0 +1,106 @@
+import de.uzk.image.Axis;
+import de.uzk.image.ScrollMovement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScrollMovementTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private ScrollMovement movement;
+
+    @BeforeEach
+    void setUp() {
+        movement = new ScrollMovement();
+    }
+
+    @Test
+    void testFirstStepStartsNewMovement() {
+        assertEquals(ScrollMovement.MIN_FRAMES_AHEAD, movement.update(Axis.TIME, 1, 0), "First step should prefetch the minimum");
+        assertTrue(movement.isNewMovement(), "First step should start a new movement");
+    }
+
+    @Test
+    void testSlowScrollingKeepsMinimumWindow() {
+        // 1 Bild alle 400 ms → 2,5 Bilder/s
+        long nanos = 0;
+        for (int i = 0; i < 10; i++) {
+            assertEquals(ScrollMovement.MIN_FRAMES_AHEAD, movement.update(Axis.LEVEL, 1, nanos), "Slow scrolling should prefetch the minimum");
+            nanos += 400 * MILLIS;
+        }
+        assertFalse(movement.isNewMovement(), "Steady scrolling should continue the movement");
+    }
+
+    @Test
+    void testFastScrollingGrowsWindow() {
+        // 1 Bild alle 100 ms → 10 Bilder/s
+        long nanos = 0;
+        int previous = movement.update(Axis.TIME, 1, nanos);
+        for (int i = 0; i < 3; i++) {
+            nanos += 100 * MILLIS;
+            int framesAhead = movement.update(Axis.TIME, 1, nanos);
+            assertTrue(framesAhead > previous, "Window should grow while scrolling fast");
+            previous = framesAhead;
+        }
+    }
+
+    @Test
+    void testWindowIsCapped() {
+        long nanos = 0;
+        for (int i = 0; i < 20; i++) {
+            movement.update(Axis.TIME, 5, nanos);
+            nanos += MILLIS;
+        }
+        assertEquals(ScrollMovement.MAX_FRAMES_AHEAD, movement.getFramesAhead(), "Window should be capped at the maximum");
+    }
+
+    @Test
+    void testReversalStartsNewMovement() {
+        long nanos = scrollFast(Axis.TIME, 1);
+
+        assertEquals(ScrollMovement.MIN_FRAMES_AHEAD, movement.update(Axis.TIME, -1, nanos + 20 * MILLIS), "Reversal should reset the window");
+        assertTrue(movement.isNewMovement(), "Reversal should start a new movement");
+    }
+
+    @Test
+    void testAxisChangeStartsNewMovement() {
+        long nanos = scrollFast(Axis.TIME, 1);
+
+        assertEquals(ScrollMovement.MIN_FRAMES_AHEAD, movement.update(Axis.LEVEL, 1, nanos + 20 * MILLIS), "Axis change should reset the window");
+        assertTrue(movement.isNewMovement(), "Axis change should start a new movement");
+    }
+
+    @Test
+    void testPauseStartsNewMovement() {
+        long nanos = scrollFast(Axis.TIME, 1);
+
+        movement.update(Axis.TIME, 1, nanos + ScrollMovement.IDLE_RESET_NANOS);
+        assertTrue(movement.isNewMovement(), "Pause should start a new movement");
+        assertEquals(ScrollMovement.MIN_FRAMES_AHEAD, movement.getFramesAhead(), "Pause should reset the window");
+    }
+
+    @Test
+    void testResetStartsNewMovement() {
+        long nanos = scrollFast(Axis.TIME, 1);
+        movement.reset();
+
+        movement.update(Axis.TIME, 1, nanos + 20 * MILLIS);
+        assertTrue(movement.isNewMovement(), "Step after reset should start a new movement");
+        assertEquals(0, movement.getVelocity(), "Reset should clear the velocity");
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private long scrollFast(Axis axis, int rotation) {
+        long nanos = 0;
+        for (int i = 0; i < 5; i++) {
+            movement.update(axis, rotation, nanos);
+            nanos += 20 * MILLIS;
+        }
+        assertTrue(movement.getFramesAhead() > ScrollMovement.MIN_FRAMES_AHEAD, "Fast scrolling should grow the window");
+        return nanos - 20 * MILLIS;
+    }
+}
@@ -0,0 +1,57 @@
+import de.uzk.image.ToneMapping;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.RescaleOp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToneMappingTest {
+
+    @Test
+    void testDefaultIsIdentity() {
+        assertTrue(ToneMapping.of(100, 100).isIdentity(), "Default brightness and contrast should not change pixels");
+        assertFalse(ToneMapping.of(120, 100).isIdentity(), "Changed brightness should change pixels");
+    }
+
+    @Test
+    void testMatches() {
+        ToneMapping toneMapping = ToneMapping.of(120, 80);
+
+        assertTrue(toneMapping.matches(120, 80), "Tone mapping should match its own settings");
+        assertFalse(toneMapping.matches(120, 81), "Tone mapping should not match other settings");
+    }
+
+    @Test
+    void testMatchesRescaleOp() {
+        for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR}) {
+            BufferedImage source = createGradient(type);
+            BufferedImage expected = new RescaleOp(1.5f, 128 * 0.2f, null).filter(source, null);
+            BufferedImage actual = ToneMapping.of(120, 150).apply(source, createDestination());
+
+            for (int x = 0; x < source.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, 0) | 0xFF000000, actual.getRGB(x, 0), "Pixel %d of type %d differs".formatted(x, type));
+            }
+        }
+    }
+
+    @Test
+    void testLargeImageIsMappedCompletely() {
+        BufferedImage source = new BufferedImage(512, 512, BufferedImage.TYPE_INT_RGB);
+        source.setRGB(511, 511, 0x102030);
+        BufferedImage actual = ToneMapping.of(100, 200).apply(source, new BufferedImage(512, 512, BufferedImage.TYPE_INT_ARGB));
+
+        assertEquals(0xFF000000, actual.getRGB(0, 0), "Black pixel should stay black");
+        assertEquals(0xFF204060, actual.getRGB(511, 511), "Last pixel was not mapped");
+    }
+
+    private static BufferedImage createGradient(int type) {
+        BufferedImage image = new BufferedImage(256, 1, type);
+        for (int x = 0; x < 256; x++) image.setRGB(x, 0, 0xFF000000 | x << 16 | (255 - x) << 8 | (x / 2));
+        return image;
+    }
+
+    private static BufferedImage createDestination() {
+        return new BufferedImage(256, 1, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,134 @@
+package de.uzk.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageDirectoryScanTest {
+    private final ImageFileNameParser parser = new ImageFileNameParser("X", "L", ImageFileType.JPEG);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testOrdersByTimeThenLevel() throws Exception {
+        List<Path> paths = createFiles("X2L0.jpg", "X0L1.jpg", "X1L3.jpg", "X0L0.jpg", "X1L0.jpg", "X2L2.jpg");
+        ImageDirectoryScan scan = new ImageDirectoryScan(paths, parser);
+
+        List<ImageFile> imageFiles = scan.run(new IgnoringListener());
+
+        assertEquals(List.of("X0L0.jpg", "X0L1.jpg", "X1L0.jpg", "X1L3.jpg", "X2L0.jpg", "X2L2.jpg"), fileNames(imageFiles), "Images are not ordered by time and level");
+        assertEquals(2, scan.getMaxTime(), "Max time is wrong");
+        assertEquals(3, scan.getMaxLevel(), "Max level is wrong");
+    }
+
+    @Test
+    void testSkipsInvalidNamesAndDirectories() throws Exception {
+        List<Path> paths = createFiles("X0L0.jpg", "X0L1.png", "notes.txt", "X0L.jpg", "X1L1.jpg.bak");
+        Path subDirectory = Files.createDirectory(directory.resolve("X0L2.jpg"));
+        paths.add(subDirectory);
+
+        List<ImageFile> imageFiles = new ImageDirectoryScan(paths, parser).run(new IgnoringListener());
+
+        assertEquals(List.of("X0L0.jpg"), fileNames(imageFiles), "Only matching regular files should be images");
+    }
+
+    @Test
+    void testKeepsDuplicatesOrderedByFileName() throws Exception {
+        List<Path> paths = createFiles("X1L1.jpg", "X001L01.jpg", "X0L0.jpg", "X01L1.jpg");
+
+        List<ImageFile> imageFiles = new ImageDirectoryScan(paths, parser).run(new IgnoringListener());
+
+        assertEquals(List.of("X0L0.jpg", "X001L01.jpg", "X01L1.jpg", "X1L1.jpg"), fileNames(imageFiles), "Duplicates should be ordered by file name");
+    }
+
+    @Test
+    void testRespectsLimits() throws Exception {
+        String maxName = "X%dL%d.jpg".formatted(ImageDirectoryScan.MAX_TIME, ImageDirectoryScan.MAX_LEVEL);
+        String tooLateName = "X%dL0.jpg".formatted(ImageDirectoryScan.MAX_TIME + 1);
+        String tooDeepName = "X0L%d.jpg".formatted(ImageDirectoryScan.MAX_LEVEL + 1);
+        List<Path> paths = createFiles(tooLateName, maxName, tooDeepName);
+        ImageDirectoryScan scan = new ImageDirectoryScan(paths, parser);
+
+        List<ImageFile> imageFiles = scan.run(new IgnoringListener());
+
+        assertEquals(List.of(maxName), fileNames(imageFiles), "Images beyond the limits should be skipped");
+        assertEquals(ImageDirectoryScan.MAX_TIME, scan.getMaxTime(), "Max time is wrong");
+        assertEquals(ImageDirectoryScan.MAX_LEVEL, scan.getMaxLevel(), "Max level is wrong");
+    }
+
+    @Test
+    void testInterruptCancelsScan() throws Exception {
+        // Jeder Zugriff dauert etwas, sodass die Auswertung ohne Abbruch mehrere Sekunden bräuchte
+        int size = 1 << 20;
+        AtomicInteger accessed = new AtomicInteger();
+        Path path = directory.resolve("notes.txt");
+        List<Path> paths = new AbstractList<>() {
+            @Override
+            public Path get(int index) {
+                accessed.incrementAndGet();
+                LockSupport.parkNanos(10_000);
+                return path;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+        ImageDirectoryScan scan = new ImageDirectoryScan(paths, parser);
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> scan.run(new IgnoringListener()), "Interrupt should cancel the scan");
+
+        assertTrue(ForkJoinPool.commonPool().awaitQuiescence(10, TimeUnit.SECONDS), "Scan tasks did not stop");
+        assertTrue(accessed.get() < size, "Scan tasks should stop early after an interrupt");
+    }
+
+    // ========================================
+    // Hilfsmethoden
+    // ========================================
+    private List<Path> createFiles(String... fileNames) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (String fileName : fileNames) paths.add(Files.createFile(directory.resolve(fileName)));
+        return paths;
+    }
+
+    private static List<String> fileNames(List<ImageFile> imageFiles) {
+        return imageFiles.stream().map(ImageFile::getFileName).toList();
+    }
+
+    private static final class IgnoringListener implements LoadingImageListener {
+        @Override
+        public void onLoadingStart() {
+        }
+
+        @Override
+        public void onScanningStart(int filesCount, int currentFileNumber, int imagesCount) {
+        }
+
+        @Override
+        public void onScanningUpdate(int filesCount, int currentFileNumber, Path path, int imagesCount) {
+        }
+
+        @Override
+        public void onScanningComplete(int filesCount, int currentFileNumber, int imagesCount) {
+        }
+
+        @Override
+        public void onLoadingComplete(int imagesCount) {
+        }
+    }
+}